@@ -0,0 +1,173 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.amica.help.Ticket.Status;
+
+/**
+ * Answers questions about the state of a help desk at a past moment: 
+ * how big the backlog was, and how many open tickets each technician had.
+ * We keep a time-ordered log of every change in a ticket's status or
+ * technician, with the values before and after, in primitive arrays;
+ * and every {@link #CHECKPOINT_INTERVAL} log entries we keep a checkpoint
+ * of the totals as of that point. To answer a question we start from the
+ * latest checkpoint before the requested time and replay only the entries
+ * between that checkpoint and the requested time.
+ * 
+ * A ticket is open if it has been created and not resolved. Technicians
+ * are identified by ordinal, with -1 standing for no technician.
+ */
+public class AsOfIndex {
+
+	public static final int CHECKPOINT_INTERVAL = 1024;
+	
+	private static final byte NO_STATUS = -1;
+	private static final int INITIAL_CAPACITY = 64;
+	
+	private record Checkpoint(int backlog, int[] openByTechnician) {}
+	
+	private int size;
+	private long[] times = {};
+	private byte[] oldStatuses = {};
+	private byte[] newStatuses = {};
+	private int[] oldTechnicians = {};
+	private int[] newTechnicians = {};
+	private List<Checkpoint> checkpoints = new ArrayList<>();
+	private int technicians;
+	
+	private static boolean isOpen(byte status) {
+		return status != NO_STATUS && status != Status.RESOLVED.ordinal();
+	}
+	
+	private static byte code(Status status) {
+		return status != null ? (byte) status.ordinal() : NO_STATUS;
+	}
+	
+	private static int code(Technician technician) {
+		return technician != null ? technician.getOrdinal() : -1;
+	}
+	
+	/**
+	 * The arrays start out empty, so that a desk that never changes costs
+	 * nothing here, and double from a modest size once there are changes.
+	 */
+	private void ensureCapacity() {
+		if (size == times.length) {
+			int capacity = Math.max(INITIAL_CAPACITY, times.length * 2);
+			times = Arrays.copyOf(times, capacity);
+			oldStatuses = Arrays.copyOf(oldStatuses, capacity);
+			newStatuses = Arrays.copyOf(newStatuses, capacity);
+			oldTechnicians = Arrays.copyOf(oldTechnicians, capacity);
+			newTechnicians = Arrays.copyOf(newTechnicians, capacity);
+		}
+	}
+	
+	/**
+	 * Returns the number of log entries with times at or before the given time.
+	 */
+	private int countUpTo(long time) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (times[middle] <= time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * Records a change to a ticket's status and/or technician at the given time.
+	 * Changes normally arrive in time order; one that arrives out of order is
+	 * inserted in its place, and the checkpoints after it are discarded.
+	 */
+	public void record(long time, Status oldStatus, Technician oldTechnician,
+			Status newStatus, Technician newTechnician) {
+		if (oldStatus == newStatus && oldTechnician == newTechnician) {
+			return;
+		}
+		
+		ensureCapacity();
+		int position = countUpTo(time);
+		if (position < size) {
+			int moving = size - position;
+			System.arraycopy(times, position, times, position + 1, moving);
+			System.arraycopy(oldStatuses, position, oldStatuses, position + 1, moving);
+			System.arraycopy(newStatuses, position, newStatuses, position + 1, moving);
+			System.arraycopy(oldTechnicians, position, oldTechnicians, position + 1, moving);
+			System.arraycopy(newTechnicians, position, newTechnicians, position + 1, moving);
+			while (checkpoints.size() > position / CHECKPOINT_INTERVAL) {
+				checkpoints.remove(checkpoints.size() - 1);
+			}
+		}
+		times[position] = time;
+		oldStatuses[position] = code(oldStatus);
+		newStatuses[position] = code(newStatus);
+		oldTechnicians[position] = code(oldTechnician);
+		newTechnicians[position] = code(newTechnician);
+		technicians = Math.max(technicians, 
+				Math.max(oldTechnicians[position], newTechnicians[position]) + 1);
+		++size;
+		
+		while ((checkpoints.size() + 1) * CHECKPOINT_INTERVAL <= size) {
+			int end = (checkpoints.size() + 1) * CHECKPOINT_INTERVAL;
+			checkpoints.add(replay(end));
+		}
+	}
+	
+	/**
+	 * Computes totals as of the given number of log entries, starting from
+	 * the latest checkpoint at or before that point.
+	 */
+	private Checkpoint replay(int end) {
+		int checkpoint = Math.min(end / CHECKPOINT_INTERVAL, checkpoints.size());
+		int backlog = 0;
+		int[] openByTechnician = new int[technicians];
+		if (checkpoint > 0) {
+			Checkpoint start = checkpoints.get(checkpoint - 1);
+			backlog = start.backlog();
+			System.arraycopy(start.openByTechnician(), 0, openByTechnician, 0, 
+					start.openByTechnician().length);
+		}
+		
+		for (int i = checkpoint * CHECKPOINT_INTERVAL; i < end; ++i) {
+			if (isOpen(oldStatuses[i])) {
+				--backlog;
+				if (oldTechnicians[i] >= 0) {
+					--openByTechnician[oldTechnicians[i]];
+				}
+			}
+			if (isOpen(newStatuses[i])) {
+				++backlog;
+				if (newTechnicians[i] >= 0) {
+					++openByTechnician[newTechnicians[i]];
+				}
+			}
+		}
+		return new Checkpoint(backlog, openByTechnician);
+	}
+	
+	/**
+	 * Returns the number of open tickets as of the given time.
+	 */
+	public int getBacklog(long time) {
+		return replay(countUpTo(time)).backlog();
+	}
+	
+	/**
+	 * Returns the number of open tickets held by each technician as of
+	 * the given time, indexed by technician ordinal.
+	 */
+	public int[] getOpenByTechnician(long time) {
+		return replay(countUpTo(time)).openByTechnician();
+	}
+	
+	public int size() {
+		return size;
+	}
+}
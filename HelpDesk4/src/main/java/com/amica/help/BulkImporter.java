@@ -0,0 +1,312 @@
+package com.amica.help;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * Loads historical tickets, with their full event histories and tags,
+ * from the CSV files written by {@link TicketExporter}, preserving
+ * the original timestamps. We read each file through a channel a window 
+ * at a time, so only one window of raw bytes is in memory however big the
+ * file is. Each window ends at the last complete record in it, and is
+ * split into chunks that are parsed in parallel. We then build the tickets
+ * in ID order, so that reopened tickets can find their prior tickets, and
+ * hand them all to the help desk to be {@link HelpDesk#importTickets 
+ * indexed in one pass}.
+ * 
+ * Technicians are not part of the export, so they must be added to the
+ * help desk before importing.
+ */
+public class BulkImporter {
+
+	private record TicketRecord(int ID, int priorID, String originator, 
+			String description, Priority priority, Status status, String techID) {}
+	
+	private record EventRecord(int ticketID, long timestamp, 
+			Status newStatus, String note) {}
+	
+	private record TagRecord(int ticketID, String tag) {}
+	
+	public static final int DEFAULT_MINIMUM_CHUNK_SIZE = 1 << 16;
+	public static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+	
+	private int chunks;
+	private int minimumChunkSize;
+	private int windowSize;
+	
+	public BulkImporter() {
+		this(ForkJoinPool.getCommonPoolParallelism() * 4, DEFAULT_MINIMUM_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Creates an importer that reads each file in windows of the given 
+	 * number of chunks of the given size, and parses the chunks in parallel.
+	 */
+	public BulkImporter(int chunks, int minimumChunkSize) {
+		this.chunks = Math.max(1, chunks);
+		this.minimumChunkSize = Math.max(1, minimumChunkSize);
+		this.windowSize = (int) Math.min(MAX_WINDOW_SIZE, 
+				(long) this.chunks * this.minimumChunkSize);
+	}
+	
+	/**
+	 * Imports tickets into the given help desk, which must not have any
+	 * tickets yet. Returns the number of tickets imported.
+	 */
+	public int importCSV(HelpDesk helpDesk, 
+			Path ticketsFile, Path eventsFile, Path tagsFile) throws IOException {
+		List<TicketRecord> ticketRecords = parse(ticketsFile, 
+				fields -> new TicketRecord(Integer.parseInt(fields.get(0)),
+						Integer.parseInt(fields.get(1)), fields.get(2), fields.get(3),
+						Priority.valueOf(fields.get(4)), Status.valueOf(fields.get(5)),
+						fields.get(6)));
+		Map<Integer,List<EventRecord>> eventRecords = 
+				parse(eventsFile, 
+					fields -> new EventRecord(Integer.parseInt(fields.get(0)),
+						Long.parseLong(fields.get(1)), 
+						fields.get(2).isEmpty() ? null : Status.valueOf(fields.get(2)),
+						fields.get(3)))
+				.parallelStream()
+				.collect(Collectors.groupingBy(EventRecord::ticketID));
+		Map<Integer,List<TagRecord>> tagRecords = 
+				parse(tagsFile, 
+					fields -> new TagRecord(Integer.parseInt(fields.get(0)), fields.get(1)))
+				.parallelStream()
+				.collect(Collectors.groupingBy(TagRecord::ticketID));
+		
+		List<TicketRecord> byID = new ArrayList<>(ticketRecords);
+		byID.sort(Comparator.comparingInt(TicketRecord::ID));
+		Map<Integer,Ticket> built = new HashMap<>();
+		StringPool strings = helpDesk.getStrings();
+		for (TicketRecord record : byID) {
+			Technician technician = null;
+			if (!record.techID().isEmpty()) {
+				technician = helpDesk.getTechnicianByID(record.techID());
+				if (technician == null) {
+					throw new IllegalArgumentException
+						("Ticket " + record.ID() + " refers to unknown technician " + 
+								record.techID());
+				}
+			}
+			
+			List<Event> history = new ArrayList<>();
+			for (EventRecord event : eventRecords.getOrDefault
+					(record.ID(), Collections.emptyList())) {
+				String note = event.newStatus() == Status.CREATED ||
+						event.newStatus() == Status.ASSIGNED
+					? strings.intern(event.note()) : strings.lookup(event.note());
+				history.add(new Event(event.ticketID(), event.timestamp(), 
+						event.newStatus(), note));
+			}
+			List<Tag> tags = tagRecords.getOrDefault(record.ID(), Collections.emptyList())
+					.stream().map(tag -> helpDesk.getTenant().getTags().getTag(tag.tag())).toList();
+			
+			Ticket ticket;
+			if (record.priorID() != 0) {
+				Ticket prior = built.get(record.priorID());
+				if (prior == null) {
+					throw new IllegalArgumentException("Ticket " + record.ID() + 
+							" reopens unknown ticket " + record.priorID());
+				}
+				ticket = new ReopenedTicket(record.ID(), prior, record.description(),
+						record.priority(), record.status(), technician, history, tags,
+						helpDesk.getTenant(), helpDesk);
+			} else {
+				ticket = new Ticket(record.ID(), record.originator(), record.description(),
+						record.priority(), record.status(), technician, history, tags,
+						helpDesk.getTenant(), helpDesk);
+			}
+			built.put(ticket.getID(), ticket);
+		}
+		
+		helpDesk.importTickets(built.values());
+		return built.size();
+	}
+	
+	/**
+	 * Reads the given file a window at a time, and parses the complete 
+	 * records in each window, returning the records in their original order.
+	 * What's left of a window is carried over to the start of the next one;
+	 * if a window doesn't hold even one complete record, we make it bigger.
+	 */
+	<T> List<T> parse(Path file, Function<List<String>,T> mapper) throws IOException {
+		List<T> records = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			byte[] window = new byte[windowSize];
+			int filled = 0;
+			boolean endOfFile = false;
+			while (!endOfFile || filled != 0) {
+				while (!endOfFile && filled < window.length) {
+					int read = channel.read(ByteBuffer.wrap(window, filled, window.length - filled));
+					if (read == -1) {
+						endOfFile = true;
+					} else {
+						filled += read;
+					}
+				}
+				
+				int end = endOfFile ? filled : endOfLastRecord(window, filled);
+				if (end == 0) {
+					if (window.length == MAX_WINDOW_SIZE) {
+						throw new IllegalArgumentException("Record too long in " + file);
+					}
+					window = Arrays.copyOf(window, 
+							(int) Math.min(MAX_WINDOW_SIZE, 2L * window.length));
+					continue;
+				}
+				
+				records.addAll(parse(window, end, mapper));
+				System.arraycopy(window, end, window, 0, filled - end);
+				filled -= end;
+			}
+		}
+		return records;
+	}
+	
+	/**
+	 * Returns the position just after the last newline that's outside of 
+	 * quotes, or zero if there is none. The data must start at the start 
+	 * of a record.
+	 */
+	private static int endOfLastRecord(byte[] data, int length) {
+		int result = 0;
+		boolean inQuotes = false;
+		for (int i = 0; i < length; ++i) {
+			if (data[i] == '"') {
+				inQuotes = !inQuotes;
+			} else if (data[i] == '\n' && !inQuotes) {
+				result = i + 1;
+			}
+		}
+		return result;
+	}
+	
+	<T> List<T> parse(byte[] data, Function<List<String>,T> mapper) {
+		return parse(data, data.length, mapper);
+	}
+	
+	/**
+	 * Splits the given length of data into chunks at record boundaries, 
+	 * and parses the chunks in parallel, returning the records in their 
+	 * original order. A newline ends a record only if it's outside of quotes,
+	 * which we can tell by whether there's an even number of quotes before
+	 * it; so we count the quotes in each rough chunk in parallel, and then
+	 * each chunk starts after the first newline that we know to be outside
+	 * of quotes.
+	 */
+	private <T> List<T> parse(byte[] data, int length, Function<List<String>,T> mapper) {
+		int count = Math.min(chunks, Math.max(1, length / minimumChunkSize));
+		int[] starts = new int[count + 1];
+		for (int i = 0; i <= count; ++i) {
+			starts[i] = (int) ((long) length * i / count);
+		}
+		
+		int[] quotes = IntStream.range(0, count).parallel()
+				.map(chunk -> countQuotes(data, starts[chunk], starts[chunk + 1]))
+				.toArray();
+		int[] boundaries = new int[count + 1];
+		boundaries[count] = length;
+		int quotesBefore = 0;
+		for (int chunk = 1; chunk < count; ++chunk) {
+			quotesBefore += quotes[chunk - 1];
+			boundaries[chunk] = starts[chunk];
+			boolean inQuotes = quotesBefore % 2 != 0;
+			int position = starts[chunk];
+			if (position > 0 && data[position - 1] == '\n' && !inQuotes) {
+				continue;
+			}
+			while (position < length) {
+				byte b = data[position++];
+				if (b == '"') {
+					inQuotes = !inQuotes;
+				} else if (b == '\n' && !inQuotes) {
+					break;
+				}
+			}
+			boundaries[chunk] = position;
+		}
+		for (int chunk = 1; chunk <= count; ++chunk) {
+			boundaries[chunk] = Math.max(boundaries[chunk], boundaries[chunk - 1]);
+		}
+		
+		return IntStream.range(0, count).parallel()
+				.mapToObj(chunk -> parseChunk
+						(data, boundaries[chunk], boundaries[chunk + 1], mapper))
+				.flatMap(List::stream)
+				.toList();
+	}
+	
+	private static int countQuotes(byte[] data, int start, int end) {
+		int result = 0;
+		for (int i = start; i < end; ++i) {
+			if (data[i] == '"') {
+				++result;
+			}
+		}
+		return result;
+	}
+	
+	private static <T> List<T> parseChunk(byte[] data, int start, int end, 
+			Function<List<String>,T> mapper) {
+		List<T> records = new ArrayList<>();
+		List<String> fields = new ArrayList<>();
+		int position = start;
+		while (position < end) {
+			fields.clear();
+			while (true) {
+				if (position < end && data[position] == '"') {
+					int contentStart = ++position;
+					boolean doubled = false;
+					while (position < end) {
+						if (data[position] == '"') {
+							if (position + 1 < end && data[position + 1] == '"') {
+								doubled = true;
+								position += 2;
+								continue;
+							}
+							break;
+						}
+						++position;
+					}
+					String value = new String(data, contentStart, 
+							position - contentStart, StandardCharsets.UTF_8);
+					fields.add(doubled ? value.replace("\"\"", "\"") : value);
+					++position;
+				} else {
+					int fieldStart = position;
+					while (position < end && data[position] != ',' && data[position] != '\n') {
+						++position;
+					}
+					fields.add(new String(data, fieldStart, 
+							position - fieldStart, StandardCharsets.US_ASCII));
+				}
+				
+				if (position >= end || data[position] == '\n') {
+					++position;
+					break;
+				}
+				++position;
+			}
+			records.add(mapper.apply(fields));
+		}
+		return records;
+	}
+}
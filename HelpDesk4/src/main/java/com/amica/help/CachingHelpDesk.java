@@ -0,0 +1,182 @@
+package com.amica.help;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.amica.help.HelpDesk.Index;
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * Decorator for a {@link HelpDesk} that caches the results of repeated
+ * queries. Each cached result records the versions of the indexes it
+ * depends on, as reported by {@link HelpDesk#getVersion}; a result is 
+ * served from the cache only if none of those indexes has changed since,
+ * so changes to one kind of data don't throw out results that don't 
+ * depend on it. The cache holds a bounded number of results and
+ * evicts the least recently used.
+ * 
+ * Cheap queries, such as lookup by ID and paged queries, go straight
+ * through to the help desk.
+ */
+public class CachingHelpDesk implements HelpDeskAPI {
+
+	public static final int DEFAULT_CAPACITY = 1000;
+	
+	private record Key(String query, List<Object> arguments) {}
+	
+	/**
+	 * Builds a key from a copy of the arguments. Arguments may be null,
+	 * since the target desk accepts them and just finds nothing.
+	 */
+	private static Key key(String query, Object... arguments) {
+		return new Key(query, Arrays.asList(arguments.clone()));
+	}
+	
+	private record Entry(Object result, long[] versions) {}
+	
+	private HelpDesk target;
+	private Map<Key,Entry> cache;
+	private long hits;
+	private long misses;
+	
+	public CachingHelpDesk(HelpDesk target) {
+		this(target, DEFAULT_CAPACITY);
+	}
+	
+	public CachingHelpDesk(HelpDesk target, int capacity) {
+		this.target = target;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key,Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+	
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	public synchronized int size() {
+		return cache.size();
+	}
+	
+	public synchronized void clear() {
+		cache.clear();
+	}
+	
+	private long[] versionsOf(Index... indexes) {
+		long[] result = new long[indexes.length];
+		for (int i = 0; i < indexes.length; ++i) {
+			result[i] = target.getVersion(indexes[i]);
+		}
+		return result;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private synchronized <T> T cached(Key key, Supplier<T> query, Index... indexes) {
+		long[] versions = versionsOf(indexes);
+		Entry entry = cache.get(key);
+		if (entry != null && Arrays.equals(entry.versions(), versions)) {
+			++hits;
+			return (T) entry.result();
+		}
+		
+		++misses;
+		T result = query.get();
+		cache.put(key, new Entry(result, versions));
+		return result;
+	}
+	
+	private Stream<Ticket> cachedTickets(Key key, 
+			Supplier<Stream<Ticket>> query, Index... indexes) {
+		List<Ticket> result = cached(key, () -> query.get().toList(), indexes);
+		return result.stream();
+	}
+
+	public void addTechnician(String ID, String name, int extension) {
+		target.addTechnician(ID, name, extension);
+	}
+
+	public int createTicket(String originator, String description, Priority priority) {
+		return target.createTicket(originator, description, priority);
+	}
+
+	public int reopenTicket(int priorTicketID, String reason, Priority priority) {
+		return target.reopenTicket(priorTicketID, reason, priority);
+	}
+
+	public Ticket getTicketByID(int ID) {
+		return target.getTicketByID(ID);
+	}
+
+	public Stream<Ticket> getTicketsByStatus(Status status) {
+		return cachedTickets(key("getTicketsByStatus", status),
+				() -> target.getTicketsByStatus(status),
+				Index.TICKETS, Index.STATUS, Index.PRIORITY);
+	}
+
+	public Stream<Ticket> getTicketsByNotStatus(Status status) {
+		return cachedTickets(key("getTicketsByNotStatus", status),
+				() -> target.getTicketsByNotStatus(status),
+				Index.TICKETS, Index.STATUS, Index.PRIORITY);
+	}
+
+	public Stream<Ticket> getTicketsByTechnician(String techID) {
+		return cachedTickets(key("getTicketsByTechnician", techID),
+				() -> target.getTicketsByTechnician(techID),
+				Index.TICKETS, Index.STATUS, Index.PRIORITY);
+	}
+
+	public Stream<Ticket> getTicketsWithAnyTag(Tag... tags) {
+		return cachedTickets(key("getTicketsWithAnyTag", (Object[]) tags),
+				() -> target.getTicketsWithAnyTag(tags),
+				Index.TICKETS, Index.TAGS, Index.PRIORITY);
+	}
+
+	public int getAverageMinutesToResolve() {
+		return cached(key("getAverageMinutesToResolve"),
+				target::getAverageMinutesToResolve, Index.STATUS);
+	}
+
+	public Map<String, Double> getAverageMinutesToResolvePerTechnician() {
+		return cached(key("getAverageMinutesToResolvePerTechnician"),
+				() -> Map.copyOf(target.getAverageMinutesToResolvePerTechnician()),
+				Index.STATUS);
+	}
+
+	public Stream<Ticket> getTicketsByText(String text) {
+		return cachedTickets(key("getTicketsByText", text),
+				() -> target.getTicketsByText(text),
+				Index.TICKETS, Index.TEXT, Index.PRIORITY);
+	}
+
+	public Stream<Event> getLatestActivity(int count) {
+		return target.getLatestActivity(count);
+	}
+
+	public Stream<Ticket> getTicketPage(Ticket after, int count) {
+		return target.getTicketPage(after, count);
+	}
+
+	public Stream<Ticket> getTicketPage(Priority priority, int ID, int count) {
+		return target.getTicketPage(priority, ID, count);
+	}
+
+	public Stream<Event> getEventPage(Event after, int count) {
+		return target.getEventPage(after, count);
+	}
+
+	public Stream<Event> getEventPage(long timestamp, long sequence, int count) {
+		return target.getEventPage(timestamp, sequence, count);
+	}
+}
@@ -13,6 +13,11 @@ import java.time.format.DateTimeFormatter;
  * your code should call the {@link #getTime getTime} method in 
  * order to initialize time stamps in your data model.
  * 
+ * The static time is held by a shared {@link SimulatedTimeSource},
+ * which is what a {@link HelpDesk} uses unless it's given a
+ * {@link TimeSource} of its own. The {@link #SYSTEM} source reads the
+ * real system clock.
+ * 
  * Should you want it for any of your toString() methods or diagnostic
  * code, there is also a {@link #format format} method that produces
  * a nice, readable string with the date and time.
@@ -22,21 +27,46 @@ import java.time.format.DateTimeFormatter;
 public class Clock {
 	
 	public static final ZoneOffset OFFSET = ZoneOffset.of("-5");
+	public static final TimeSource SYSTEM = System::currentTimeMillis;
+	
+	private static final long MILLISECONDS_PER_MINUTE = 60000;
+	private static final int FORMAT_CACHE_SIZE = 256;
+	
+	/**
+	 * A formatted minute, held in a direct-mapped cache. Entries are 
+	 * immutable, so threads can share the cache without locking:
+	 * the worst a race can do is cost us an extra call to the formatter.
+	 */
+	private record Formatted(long minute, String text) {}
 			
-	private static Instant time;
+	private static SimulatedTimeSource shared = new SimulatedTimeSource();
 	private static DateTimeFormatter formatter =
 			DateTimeFormatter.ofPattern("M/d/yy H:mm");
+	private static Formatted[] formatCache = new Formatted[FORMAT_CACHE_SIZE];
+	
+	public static TimeSource getShared() {
+		return shared;
+	}
 	
 	public static long getTime() {
-		return time.toEpochMilli();
+		return shared.getTime();
 	}
 
 	public static void setTime(long milliseconds) {
-		time = Instant.ofEpochMilli(milliseconds);
+		shared.setTime(milliseconds);
 	}
 	
 	public static void setTime(String dateAndTime) {
-		time = LocalDateTime.parse(dateAndTime, formatter).toInstant(OFFSET);
+		shared.setTime(dateAndTime);
+	}
+	
+	/**
+	 * Parses a date and time in the same format that we produce,
+	 * without setting the clock.
+	 */
+	public static long parse(String dateAndTime) {
+		return LocalDateTime.parse(dateAndTime, formatter)
+				.toInstant(OFFSET).toEpochMilli();
 	}
 	
 	/**
@@ -44,10 +74,22 @@ public class Clock {
 	 * It formats whatever you give it. The common usage will be first
 	 * to store off a timestampe somewhere (by calling {@link #getTime getTime})
 	 * and then passing that value to this method.
+	 * 
+	 * Since our format only shows minutes, we cache recently formatted
+	 * minutes, so that formatting a run of events doesn't create a new
+	 * string for each one.
 	 */
 	public static String format(long milliseconds) {
+		long minute = Math.floorDiv(milliseconds, MILLISECONDS_PER_MINUTE);
+		int slot = Math.floorMod(minute, FORMAT_CACHE_SIZE);
+		Formatted cached = formatCache[slot];
+		if (cached != null && cached.minute() == minute) {
+			return cached.text();
+		}
 		
-		return formatter.format(LocalDateTime.ofInstant
+		String text = formatter.format(LocalDateTime.ofInstant
 				(Instant.ofEpochMilli(milliseconds), OFFSET));
+		formatCache[slot] = new Formatted(minute, text);
+		return text;
 	}
 }
@@ -0,0 +1,173 @@
+package com.amica.help;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * An immutable, consistent view of a help desk at one moment: the state
+ * of every ticket, the number of tickets in each status, and the number
+ * of open tickets held by each technician. A reader can hold a snapshot
+ * and make any number of queries against it while the desk carries on.
+ * The help desk derives each new snapshot from the last one, sharing
+ * all unchanged structure, so taking one costs nothing. Our fields, and
+ * those of the vectors we're built from, are final, so a snapshot can be
+ * handed to another thread by any means once it's built.
+ */
+public class DeskSnapshot {
+
+	/**
+	 * The state of one ticket as of a snapshot.
+	 */
+	public record TicketState(int ID, String originator, String description,
+			Priority priority, Status status, String technicianID, List<Tag> tags) {
+		
+		public static TicketState of(Ticket ticket) {
+			return new TicketState(ticket.getID(), ticket.getOriginator(),
+					ticket.getDescription(), ticket.getPriority(), ticket.getStatus(),
+					ticket.getTechnician() != null ? ticket.getTechnician().getID() : null,
+					ticket.getTags().toList());
+		}
+		
+		public boolean isOpen() {
+			return status != Status.RESOLVED;
+		}
+	}
+	
+	public static final DeskSnapshot EMPTY = new DeskSnapshot(PersistentVector.empty(),
+			PersistentVector.empty(), PersistentVector.empty(), new int[Status.values().length]);
+	
+	private final PersistentVector<TicketState> tickets;
+	private final PersistentVector<String> technicianIDs;
+	private final PersistentVector<Integer> openByTechnician;
+	private final int[] countsByStatus;
+	
+	private DeskSnapshot(PersistentVector<TicketState> tickets, 
+			PersistentVector<String> technicianIDs, 
+			PersistentVector<Integer> openByTechnician, int[] countsByStatus) {
+		this.tickets = tickets;
+		this.technicianIDs = technicianIDs;
+		this.openByTechnician = openByTechnician;
+		this.countsByStatus = countsByStatus;
+	}
+	
+	/**
+	 * Returns a snapshot with the given technician added, at the next ordinal.
+	 */
+	DeskSnapshot withTechnician(Technician technician) {
+		return new DeskSnapshot(tickets, technicianIDs.add(technician.getID()),
+				openByTechnician.add(0), countsByStatus);
+	}
+	
+	/**
+	 * Returns a snapshot without the given technician. We leave an empty
+	 * place at their ordinal, so that the others keep theirs.
+	 */
+	DeskSnapshot withoutTechnician(Technician technician) {
+		return new DeskSnapshot(tickets, technicianIDs.set(technician.getOrdinal(), null),
+				openByTechnician, countsByStatus);
+	}
+	
+	/**
+	 * Returns a snapshot with the current state of the given ticket, which
+	 * is either already in this snapshot or has the next ticket ID.
+	 * The old status and technician are those from the ticket's last 
+	 * snapshot state, so that we can adjust our counts.
+	 */
+	DeskSnapshot withTicket(Ticket ticket, Status oldStatus, Technician oldTechnician) {
+		TicketState state = TicketState.of(ticket);
+		int index = ticket.getID() - 1;
+		if (index > tickets.size()) {
+			throw new IllegalStateException(String.format
+				("Ticket %d would leave a gap after ticket %d.", ticket.getID(), tickets.size()));
+		}
+		PersistentVector<TicketState> newTickets = index == tickets.size()
+				? tickets.add(state) : tickets.set(index, state);
+		
+		int[] newCounts = countsByStatus;
+		if (oldStatus != ticket.getStatus()) {
+			newCounts = countsByStatus.clone();
+			if (oldStatus != null) {
+				--newCounts[oldStatus.ordinal()];
+			}
+			++newCounts[ticket.getStatus().ordinal()];
+		}
+		
+		PersistentVector<Integer> newOpen = openByTechnician;
+		if (oldTechnician != null && oldStatus != Status.RESOLVED) {
+			int ordinal = oldTechnician.getOrdinal();
+			newOpen = newOpen.set(ordinal, newOpen.get(ordinal) - 1);
+		}
+		if (ticket.getTechnician() != null && ticket.getStatus() != Status.RESOLVED) {
+			int ordinal = ticket.getTechnician().getOrdinal();
+			newOpen = newOpen.set(ordinal, newOpen.get(ordinal) + 1);
+		}
+		
+		return new DeskSnapshot(newTickets, technicianIDs, newOpen, newCounts);
+	}
+	
+	/**
+	 * Returns a snapshot with the current tags of the given ticket.
+	 */
+	DeskSnapshot withTags(Ticket ticket) {
+		return new DeskSnapshot(tickets.set(ticket.getID() - 1, TicketState.of(ticket)),
+				technicianIDs, openByTechnician, countsByStatus);
+	}
+	
+	public int getTicketCount() {
+		return tickets.size();
+	}
+	
+	/**
+	 * Returns the state of the given ticket, or null if there's no such ticket.
+	 */
+	public TicketState getTicketByID(int ID) {
+		return ID > 0 && ID <= tickets.size() ? tickets.get(ID - 1) : null;
+	}
+	
+	/**
+	 * Returns all tickets in ID order.
+	 */
+	public Stream<TicketState> getTickets() {
+		return tickets.stream();
+	}
+	
+	public Stream<TicketState> getTicketsByStatus(Status status) {
+		return tickets.stream().filter(t -> t.status() == status);
+	}
+	
+	public Stream<TicketState> getTicketsByTechnician(String techID) {
+		return tickets.stream().filter(t -> techID.equals(t.technicianID()));
+	}
+	
+	public int getCount(Status status) {
+		return countsByStatus[status.ordinal()];
+	}
+	
+	/**
+	 * Returns the number of tickets that are not yet resolved.
+	 */
+	public int getBacklog() {
+		return tickets.size() - getCount(Status.RESOLVED);
+	}
+	
+	public Stream<String> getTechnicianIDs() {
+		return technicianIDs.stream().filter(Objects::nonNull);
+	}
+	
+	/**
+	 * Returns the number of open tickets held by the given technician,
+	 * or zero if there's no such technician.
+	 */
+	public int getOpenTicketCount(String techID) {
+		for (int ordinal = 0; ordinal < technicianIDs.size(); ++ordinal) {
+			if (techID.equals(technicianIDs.get(ordinal))) {
+				return openByTechnician.get(ordinal);
+			}
+		}
+		return 0;
+	}
+}
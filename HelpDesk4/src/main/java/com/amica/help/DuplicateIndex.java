@@ -0,0 +1,179 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds tickets whose descriptions are nearly the same, by locality-sensitive
+ * hashing. We break each description into shingles -- its words and pairs
+ * of adjacent words -- and summarize the set of shingles with a MinHash
+ * signature, whose entries agree between two tickets with probability 
+ * equal to the Jaccard similarity of their shingle sets. The signature
+ * is cut into bands, and each band is hashed into a table; tickets that
+ * share a bucket in any band are candidates, and we check each candidate
+ * by comparing full signatures. So a lookup touches only the tickets
+ * that are likely to be similar, however many tickets are indexed.
+ * 
+ * With 16 bands of 4 rows, pairs with similarity around 0.5 or more
+ * are very likely to become candidates.
+ */
+public class DuplicateIndex {
+
+	public static final int BANDS = 16;
+	public static final int ROWS = 4;
+	public static final int HASHES = BANDS * ROWS;
+	public static final double DEFAULT_THRESHOLD = 0.5;
+	
+	/**
+	 * A ticket ID and its estimated similarity to the query.
+	 */
+	public record Match(int ID, double similarity) {}
+	
+	private double threshold;
+	private Map<Integer,int[]> signatures = new HashMap<>();
+	private List<Map<Integer,List<Integer>>> buckets = List.of();
+	
+	public DuplicateIndex() {
+		this(DEFAULT_THRESHOLD);
+	}
+	
+	public DuplicateIndex(double threshold) {
+		this.threshold = threshold;
+	}
+	
+	public int size() {
+		return signatures.size();
+	}
+	
+	/**
+	 * Returns the MinHash signature of the given text, or null if it has
+	 * no words. We derive all of the hash functions from two halves of 
+	 * one well-mixed 64-bit hash of each shingle.
+	 */
+	static int[] signature(String text) {
+		List<String> words = TextIndex.tokenize(text);
+		if (words.isEmpty()) {
+			return null;
+		}
+		
+		Set<String> shingles = new HashSet<>(words);
+		for (int i = 1; i < words.size(); ++i) {
+			shingles.add(words.get(i - 1) + " " + words.get(i));
+		}
+		
+		int[] signature = new int[HASHES];
+		Arrays.fill(signature, Integer.MAX_VALUE);
+		for (String shingle : shingles) {
+			long hash = mix(shingle.hashCode());
+			int hash1 = (int) hash;
+			int hash2 = (int) (hash >>> 32) | 1;
+			for (int i = 0; i < HASHES; ++i) {
+				signature[i] = Math.min(signature[i], hash1 + i * hash2);
+			}
+		}
+		return signature;
+	}
+	
+	/**
+	 * The finalizer from MurmurHash3, to spread the bits of a string hash.
+	 */
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+	
+	/**
+	 * Hashes one band of the signature in place, the same way as
+	 * {@link Arrays#hashCode(int[])} would hash a copy of it.
+	 */
+	private static int bandKey(int[] signature, int band) {
+		int result = 1;
+		for (int i = band * ROWS; i < (band + 1) * ROWS; ++i) {
+			result = 31 * result + signature[i];
+		}
+		return result;
+	}
+	
+	private static double similarity(int[] a, int[] b) {
+		int same = 0;
+		for (int i = 0; i < HASHES; ++i) {
+			if (a[i] == b[i]) {
+				++same;
+			}
+		}
+		return (double) same / HASHES;
+	}
+	
+	/**
+	 * Indexes the given ticket's text. We create the band tables when the
+	 * first ticket arrives, so that an empty index holds no tables.
+	 */
+	public void add(int ID, String text) {
+		int[] signature = signature(text);
+		if (signature != null && signatures.putIfAbsent(ID, signature) == null) {
+			if (buckets.isEmpty()) {
+				buckets = new ArrayList<>(BANDS);
+				for (int band = 0; band < BANDS; ++band) {
+					buckets.add(new HashMap<>());
+				}
+			}
+			for (int band = 0; band < BANDS; ++band) {
+				buckets.get(band).computeIfAbsent(bandKey(signature, band), 
+						k -> new ArrayList<>()).add(ID);
+			}
+		}
+	}
+	
+	public void remove(int ID) {
+		int[] signature = signatures.remove(ID);
+		if (signature != null) {
+			for (int band = 0; band < BANDS; ++band) {
+				int key = bandKey(signature, band);
+				List<Integer> bucket = buckets.get(band).get(key);
+				bucket.remove(Integer.valueOf(ID));
+				if (bucket.isEmpty()) {
+					buckets.get(band).remove(key);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the indexed tickets whose estimated similarity to the given
+	 * text is at least our threshold, most similar first.
+	 */
+	public List<Match> find(String text) {
+		List<Match> result = new ArrayList<>();
+		int[] signature = signature(text);
+		if (signature == null) {
+			return result;
+		}
+		
+		Set<Integer> candidates = new HashSet<>();
+		for (int band = 0; band < buckets.size(); ++band) {
+			List<Integer> bucket = buckets.get(band).get(bandKey(signature, band));
+			if (bucket != null) {
+				candidates.addAll(bucket);
+			}
+		}
+		for (int ID : candidates) {
+			double similarity = similarity(signature, signatures.get(ID));
+			if (similarity >= threshold) {
+				result.add(new Match(ID, similarity));
+			}
+		}
+		result.sort(Comparator.comparingDouble(Match::similarity).reversed()
+				.thenComparingInt(Match::ID));
+		return result;
+	}
+}
@@ -0,0 +1,93 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import com.amica.help.Ticket.Priority;
+
+/**
+ * Decides which open tickets are due for automatic escalation. A rule
+ * says how long a ticket may stay at a given priority; we keep the open
+ * tickets at each priority in a set ordered by when they reached that
+ * priority, so finding the tickets that are due means reading from the
+ * front of each set until we reach one that isn't due yet. Tracking
+ * a ticket, or moving it to a new priority, is O(log n).
+ */
+public class Escalator {
+
+	private record Entry(long since, int ID) implements Comparable<Entry> {
+		
+		public int compareTo(Entry other) {
+			int result = Long.compare(since, other.since);
+			return result != 0 ? result : Integer.compare(ID, other.ID);
+		}
+	}
+	
+	private Map<Priority,Long> limits = new EnumMap<>(Priority.class);
+	private Map<Priority,NavigableSet<Entry>> byPriority = new EnumMap<>(Priority.class);
+	private Map<Integer,Entry> entries = new HashMap<>();
+	private Map<Integer,Priority> priorities = new HashMap<>();
+	
+	public Escalator() {
+		for (Priority priority : Priority.values()) {
+			byPriority.put(priority, new TreeSet<>());
+		}
+	}
+	
+	/**
+	 * Open tickets that have been at the given priority for the given
+	 * number of milliseconds are due to be escalated. URGENT is the top.
+	 */
+	public void addRule(Priority priority, long limit) {
+		if (priority == null || priority == Priority.URGENT || limit <= 0) {
+			throw new IllegalArgumentException
+				("Rules need a priority below URGENT and a positive time limit.");
+		}
+		limits.put(priority, limit);
+	}
+	
+	public boolean hasRules() {
+		return !limits.isEmpty();
+	}
+	
+	/**
+	 * Starts tracking the ticket at the given priority, as of the given time;
+	 * if it was already tracked, this replaces the old priority and time.
+	 */
+	public void track(int ID, Priority priority, long since) {
+		untrack(ID);
+		Entry entry = new Entry(since, ID);
+		byPriority.get(priority).add(entry);
+		entries.put(ID, entry);
+		priorities.put(ID, priority);
+	}
+	
+	public void untrack(int ID) {
+		Entry entry = entries.remove(ID);
+		if (entry != null) {
+			byPriority.get(priorities.remove(ID)).remove(entry);
+		}
+	}
+	
+	/**
+	 * Returns the IDs of tickets that are due to be escalated as of the
+	 * given time, longest overdue first within each priority.
+	 */
+	public List<Integer> getDue(long now) {
+		List<Integer> result = new ArrayList<>();
+		limits.forEach((priority, limit) -> {
+			for (Entry entry : byPriority.get(priority)) {
+				if (entry.since() + limit > now) {
+					break;
+				}
+				result.add(entry.ID());
+			}
+		});
+		return result;
+	}
+}
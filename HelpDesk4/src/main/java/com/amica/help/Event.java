@@ -2,6 +2,8 @@ package com.amica.help;
 
 import static com.amica.help.Ticket.Status;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import lombok.Getter;
 
 /**
@@ -12,8 +14,11 @@ import lombok.Getter;
 @Getter
 public class Event implements Comparable<Event> {
 
+	private static AtomicLong nextSequence = new AtomicLong();
+	
 	private int ticketID;
 	private long timestamp;
+	private long sequence;
 	private Status newStatus;
 	private String note;
 	
@@ -22,12 +27,34 @@ public class Event implements Comparable<Event> {
 	}
 	
 	public Event(int ticketID, Status newStatus, String note) {
+		this(ticketID, Clock.getTime(), newStatus, note);
+	}
+	
+	/**
+	 * Creates an event with a timestamp from the caller, which will 
+	 * typically have read it from its own {@link TimeSource}.
+	 */
+	public Event(int ticketID, long timestamp, Status newStatus, String note) {
 		this.ticketID = ticketID;
-		this.timestamp= Clock.getTime();
+		this.timestamp = timestamp;
+		this.sequence = nextSequence.incrementAndGet();
 		this.newStatus = newStatus;
 		this.note = note;
 	}
 	
+	/**
+	 * Creates a search key that sorts at the given timestamp and sequence,
+	 * for use in resuming a paged query.
+	 */
+	private Event(long timestamp, long sequence) {
+		this.timestamp = timestamp;
+		this.sequence = sequence;
+	}
+	
+	static Event key(long timestamp, long sequence) {
+		return new Event(timestamp, sequence);
+	}
+	
 	@Override
 	public String toString() {
 		String result = "Event: ticket" + ticketID + ", " + note;
@@ -38,7 +65,16 @@ public class Event implements Comparable<Event> {
 		return result;
 	}
 	
+	/**
+	 * Events sort by timestamp, and then by the order in which they were
+	 * created, so that events stamped in the same millisecond still have
+	 * a stable, unique position.
+	 */
 	public int compareTo(Event other) {
-		return Long.compare(timestamp, other.getTimestamp());
+		int result = Long.compare(timestamp, other.getTimestamp());
+		if (result == 0) {
+			result = Long.compare(sequence, other.getSequence());
+		}
+		return result;
 	}
 }
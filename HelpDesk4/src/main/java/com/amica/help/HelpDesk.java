@@ -1,34 +1,382 @@
 package com.amica.help;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.amica.help.Rollups.Measure;
 import com.amica.help.Ticket.Priority;
 import com.amica.help.Ticket.Status;
 
-public class HelpDesk implements HelpDeskAPI {
+public class HelpDesk implements HelpDeskAPI, TicketListener {
 
+	/**
+	 * The kinds of change that a cached query result might depend on.
+	 * We keep a version counter for each, and bump it on every change.
+	 */
+	public enum Index { TICKETS, STATUS, PRIORITY, TAGS, TEXT }
+	
+	/**
+	 * What to do when a new ticket looks like a duplicate of an open one:
+	 * nothing; link it to the original with a note; or link it and also
+	 * assign it to the original's technician.
+	 */
+	public enum DuplicatePolicy { NONE, LINK, CO_ASSIGN }
+	
+	/**
+	 * In ranked search, each level of priority above LOW adds this much
+	 * to a ticket's boost.
+	 */
+	public static final double PRIORITY_BOOST = 0.25;
+	
+	/**
+	 * In ranked search, a ticket with activity just now gets this much
+	 * added to its boost, and the bonus halves with each half-life.
+	 */
+	public static final double RECENCY_BOOST = 0.5;
+	public static final long RECENCY_HALF_LIFE = 7 * 24 * 60 * 60 * 1000;
+	
+	private static final double MAX_BOOST = 
+			(1 + PRIORITY_BOOST * (Priority.values().length - 1)) * (1 + RECENCY_BOOST);
+	
+	private static final String[] NO_TAGS = {};
+
+	private Tenant tenant;
+	private TimeSource clock;
+	private StringPool strings;
+	/**
+	 * We look tickets up by position, so IDs must not have gaps: we only 
+	 * take the next ID once a new ticket has been built successfully.
+	 */
 	private int nextID = 0;
 	private SortedSet<Technician> technicians = new TreeSet<>();
-	private SortedSet<Ticket> tickets = new TreeSet<>();
+	private Map<String,Technician> techniciansByID = new HashMap<>();
+	private List<Technician> techniciansByOrdinal = new ArrayList<>();
+	private WorkloadCube workload = new WorkloadCube();
+	private SkillRouter router = new SkillRouter();
+	private TagTrends tagTrends = new TagTrends();
+	private TagIndex tagIndex;
+	private TextIndex textIndex = new TextIndex();
+	private DuplicateIndex duplicates = new DuplicateIndex();
+	private DuplicatePolicy duplicatePolicy = DuplicatePolicy.NONE;
+	private Map<Integer,Integer> duplicateOf = new HashMap<>();
+	private Escalator escalator = new Escalator();
+	private TicketColumns columns = new TicketColumns();
+	private Rollups rollups = new Rollups();
+	private AsOfIndex asOf = new AsOfIndex();
+	private volatile DeskSnapshot snapshot = DeskSnapshot.EMPTY;
+	private NavigableSet<Ticket> tickets = new TreeSet<>();
+	private NavigableSet<Event> events = new TreeSet<>();
+	private List<Ticket> ticketsByID = new ArrayList<>();
+	private Map<Integer,List<Ticket>> reopenedByID = new HashMap<>();
+	private boolean parallelAnalytics;
+	private long[] versions = new long[Index.values().length];
+	
+	/**
+	 * Creates a help desk that takes its time from the shared {@link Clock}.
+	 */
+	public HelpDesk() {
+		this(Clock.getShared());
+	}
+	
+	/**
+	 * Creates a help desk that takes its time from the given source,
+	 * so that it can run independently of other desks in the same JVM.
+	 * It still uses the shared tag registry.
+	 */
+	public HelpDesk(TimeSource clock) {
+		this(new Tenant("default", clock, TagRegistry.getShared(), new StringPool()));
+	}
+	
+	/**
+	 * Creates a help desk with its own time, tags, and strings.
+	 * If the tenant has no string pool, we give the desk one of its own.
+	 */
+	public HelpDesk(Tenant tenant) {
+		this.tenant = tenant.getStrings() != null ? tenant : new Tenant(tenant.getName(),
+				tenant.getClock(), tenant.getTags(), new StringPool());
+		this.clock = this.tenant.getClock();
+		this.strings = this.tenant.getStrings();
+		this.tagIndex = new TagIndex(this.tenant.getTags());
+	}
+	
+	public Tenant getTenant() {
+		return tenant;
+	}
+	
+	public TimeSource getClock() {
+		return clock;
+	}
+	
+	public StringPool getStrings() {
+		return strings;
+	}
+	
+	/**
+	 * Returns the running tallies of tag usage, from which we can find the
+	 * most-used and trending tags as of any time on this desk's clock.
+	 */
+	public TagTrends getTagTrends() {
+		return tagTrends;
+	}
+	
+	/**
+	 * Returns the hourly and daily tallies of activity on this desk.
+	 */
+	public Rollups getRollups() {
+		return rollups;
+	}
+	
+	/**
+	 * Returns up to the given number of tags that start with the given
+	 * prefix, or have a synonym that does, ignoring case; the tags used 
+	 * most often on this desk come first.
+	 */
+	public List<Tag> completeTag(String prefix, int limit) {
+		return tagIndex.complete(prefix, limit);
+	}
+	
+	/**
+	 * In analytics mode, aggregate and full-scan queries run in parallel 
+	 * over an array-backed list of tickets, which splits evenly across 
+	 * the fork-join pool, rather than over the tree-based master set.
+	 */
+	public void setParallelAnalytics(boolean parallelAnalytics) {
+		this.parallelAnalytics = parallelAnalytics;
+	}
+	
+	public boolean isParallelAnalytics() {
+		return parallelAnalytics;
+	}
+	
+	private Stream<Ticket> analyticsStream() {
+		return parallelAnalytics ? ticketsByID.parallelStream() : tickets.stream();
+	}
+	
+	public DuplicatePolicy getDuplicatePolicy() {
+		return duplicatePolicy;
+	}
+	
+	public void setDuplicatePolicy(DuplicatePolicy duplicatePolicy) {
+		this.duplicatePolicy = duplicatePolicy;
+	}
+	
+	private void addTicket(Ticket ticket) {
+		tickets.add(ticket);
+		ticketsByID.add(ticket);
+		trackReopening(ticket);
+		textIndex.add(ticket.getID(), ticket.getDescription());
+		duplicates.add(ticket.getID(), ticket.getDescription());
+		changed(Index.TICKETS);
+	}
+	
+	/**
+	 * A reopened ticket shows its prior ticket's tags as well as its own,
+	 * so we keep track of which tickets reopen which.
+	 */
+	private void trackReopening(Ticket ticket) {
+		if (ticket instanceof ReopenedTicket reopened) {
+			reopenedByID.computeIfAbsent(reopened.getPriorTicket().getID(), 
+					ID -> new ArrayList<>()).add(ticket);
+		}
+	}
+	
+	private void changed(Index index) {
+		++versions[index.ordinal()];
+	}
+	
+	/**
+	 * Returns the current version of the given index; this changes
+	 * whenever something that the index covers is changed.
+	 */
+	public long getVersion(Index index) {
+		return versions[index.ordinal()];
+	}
 	
 	public void addTechnician(String ID, String name, int extension) {
-		technicians.add(new Technician(ID, name, extension));		
+		Technician technician = new Technician(ID, name, extension);
+		if (technicians.add(technician)) {
+			technician.setOrdinal(techniciansByOrdinal.size());
+			techniciansByOrdinal.add(technician);
+			techniciansByID.put(ID, technician);
+			technician.setRouter(router);
+			router.addTechnician(technician);
+			snapshot = snapshot.withTechnician(technician);
+		}
+	}
+	
+	/**
+	 * Declares skills for the given technician, so that tickets with
+	 * matching tags will be routed to that technician when possible.
+	 */
+	public void addSkills(String techID, String... skills) {
+		Technician technician = techniciansByID.get(techID);
+		if (technician != null) {
+			for (String skill : skills) {
+				technician.addSkill(tenant.getTags().getTag(skill));
+			}
+		} else {
+			throw new IllegalArgumentException("No such technician: " + techID);
+		}
+	}
+	
+	/**
+	 * Takes the given technician off of the staff, handing each of their
+	 * open tickets to the least-busy remaining technician with a matching
+	 * skill. The technician keeps their ordinal, so that historical counts
+	 * still line up, and resolved tickets still refer to them.
+	 */
+	public void removeTechnician(String techID) {
+		Technician technician = techniciansByID.get(techID);
+		if (technician == null) {
+			throw new IllegalArgumentException("No such technician: " + techID);
+		}
+		if (technicians.size() == 1 && technician.getActiveTicketCount() != 0) {
+			throw new IllegalStateException
+				("Can't remove the last technician while they have open tickets.");
+		}
+		
+		router.removeTechnician(technician);
+		for (Ticket ticket : technician.releaseActiveTickets()) {
+			Technician successor = router.choose(ticket.getTags().toList());
+			ticket.moveTo(successor);
+			successor.addActiveTicket(ticket);
+			ticket.recordMove(technician);
+		}
+		technician.setRouter(null);
+		technicians.remove(technician);
+		techniciansByID.remove(techID);
+		snapshot = snapshot.withoutTechnician(technician);
+	}
+	
+	/**
+	 * Moves all of one technician's open tickets to another, in one pass.
+	 * Returns the number of tickets moved.
+	 */
+	public int reassignTickets(String fromTechID, String toTechID) {
+		Technician from = techniciansByID.get(fromTechID);
+		Technician to = techniciansByID.get(toTechID);
+		if (from == null || to == null) {
+			throw new IllegalArgumentException(String.format
+				("No such technician: %s", from == null ? fromTechID : toTechID));
+		}
+		if (from == to) {
+			return 0;
+		}
+		
+		List<Ticket> moving = from.releaseActiveTickets();
+		moving.forEach(ticket -> ticket.moveTo(to));
+		to.addActiveTickets(moving);
+		moving.forEach(ticket -> ticket.recordMove(from));
+		return moving.size();
+	}
+	
+	/**
+	 * Evens out the technicians' loads, so that no two differ by more than 
+	 * one open ticket. Each technician's quota is the average load, with
+	 * the remainder going to those who have the most now; we take the
+	 * lowest-priority, most recent tickets from anyone over quota, and
+	 * hand each to whoever is least busy at the time. This ignores skills.
+	 * Returns the number of tickets moved; a ticket that ends up back with
+	 * its own technician doesn't count.
+	 */
+	public int rebalance() {
+		if (technicians.isEmpty()) {
+			return 0;
+		}
+		
+		List<Technician> byLoad = new ArrayList<>(technicians);
+		byLoad.sort(SkillRouter.LEAST_BUSY.reversed());
+		int total = byLoad.stream().mapToInt(Technician::getActiveTicketCount).sum();
+		int quota = total / byLoad.size();
+		int extra = total % byLoad.size();
+		
+		List<Ticket> moving = new ArrayList<>();
+		for (int i = 0; i < byLoad.size(); ++i) {
+			Technician technician = byLoad.get(i);
+			int excess = technician.getActiveTicketCount() - (i < extra ? quota + 1 : quota);
+			if (excess > 0) {
+				moving.addAll(technician.releaseActiveTickets(excess));
+			}
+		}
+		int moved = 0;
+		for (Ticket ticket : moving) {
+			Technician successor = router.choose();
+			Technician oldTechnician = ticket.moveTo(successor);
+			successor.addActiveTicket(ticket);
+			if (successor != oldTechnician) {
+				ticket.recordMove(oldTechnician);
+				++moved;
+			}
+		}
+		return moved;
+	}
+	
+	public Technician getTechnicianByID(String ID) {
+		return techniciansByID.get(ID);
 	}
 	
 	public int createTicket(String originator, String description, Priority priority) {
+		return createTicket(originator, description, priority, NO_TAGS);
+	}
+	
+	/**
+	 * Assigns the new ticket to the given technician, unless it looks like 
+	 * a duplicate and our policy says to assign it along with the original.
+	 */
+	private void assignNewTicket(Ticket ticket, Technician technician,
+			List<DuplicateIndex.Match> matches) {
+		Ticket original = !matches.isEmpty() 
+				? getTicketByID(matches.get(0).ID()) : null;
+		if (original != null) {
+			duplicateOf.put(ticket.getID(), original.getID());
+			if (duplicatePolicy == DuplicatePolicy.CO_ASSIGN) {
+				technician = original.getTechnician();
+			}
+		}
+		ticket.assign(technician);
+		if (original != null) {
+			ticket.addNote("Possible duplicate of ticket " + original.getID() + ".");
+		}
+	}
+	
+	/**
+	 * Create a ticket with the given tags, and assign it to the least-busy
+	 * technician whose skills match any of those tags -- or to the least-busy
+	 * technician overall, if no one has a matching skill.
+	 * We check the tags first, so that bad tags don't leave a ticket
+	 * half-registered.
+	 */
+	public int createTicket(String originator, String description, 
+			Priority priority, String... tags) {
+		if (tags == null || !Ticket.noNulls(tags)) {
+			throw new IllegalArgumentException("Tag values must be non-null.");
+		}
 		if (!technicians.isEmpty()) {
-			Ticket ticket = new Ticket(++nextID, originator, description, priority);
-			tickets.add(ticket);
-			ticket.assign(technicians.stream()
-					.min((a,b) -> Long.compare
-							(a.getActiveTickets().count(), b.getActiveTickets().count()))
-					.get());
+			HelpDeskEvents.TicketCreated event = new HelpDeskEvents.TicketCreated();
+			event.begin();
+			Ticket ticket = new Ticket(nextID + 1, originator, description, priority, tenant, this);
+			++nextID;
+			List<DuplicateIndex.Match> matches = duplicatePolicy != DuplicatePolicy.NONE 
+					? duplicates.find(description) : List.of();
+			addTicket(ticket);
+			ticket.addTags(tags);
+			event.startRouting();
+			Technician technician = tags.length != 0
+					? router.choose(ticket.getTags().toList()) : router.choose();
+			event.endRouting();
+			assignNewTicket(ticket, technician, matches);
+			event.commit(ticket);
 			return ticket.getID();
 		} else {
 			throw new IllegalStateException("No technicians available yet.");
@@ -41,24 +389,120 @@ public class HelpDesk implements HelpDeskAPI {
 	
 	public int reopenTicket(int priorTicketID, String reason, Priority priority) {
 		if (!technicians.isEmpty()) {
+			Ticket priorTicket = getTicketByID(priorTicketID);
+			if (priorTicket == null) {
+				throw new IllegalArgumentException("No such ticket: " + priorTicketID);
+			}
+			Technician technician = priorTicket.getTechnician();
+			if (technician == null || getTechnicianByID(technician.getID()) != technician) {
+				technician = router.choose(priorTicket.getTags().toList());
+			}
 			Ticket ticket = new ReopenedTicket
-					(++nextID, getTicketByID(priorTicketID), reason, priority);
-			tickets.add(ticket);
+					(nextID + 1, priorTicket, reason, priority, technician, tenant, this);
+			++nextID;
+			addTicket(ticket);
 			return ticket.getID();
 		} else {
 			throw new IllegalStateException("No technicians available yet.");
 		}
 	}
 	
+	/**
+	 * Adds tickets that were built outside of the usual workflow, as by 
+	 * {@link BulkImporter}, with their histories already in place. Rather
+	 * than indexing each ticket as it's created, we build our indexes in
+	 * one pass over the whole batch. The desk must not have any tickets yet,
+	 * and the tickets' IDs must run from 1 without gaps.
+	 */
+	public void importTickets(Collection<? extends Ticket> imported) {
+		if (!tickets.isEmpty()) {
+			throw new IllegalStateException("Can only import into an empty help desk.");
+		}
+		
+		List<Ticket> byID = new ArrayList<>(imported);
+		byID.sort(Comparator.comparingInt(Ticket::getID));
+		for (int i = 0; i < byID.size(); ++i) {
+			if (byID.get(i).getID() != i + 1) {
+				throw new IllegalArgumentException
+					("Imported ticket IDs must run from 1 without gaps.");
+			}
+		}
+		
+		ticketsByID.addAll(byID);
+		tickets.addAll(byID);
+		byID.forEach(this::trackReopening);
+		List<Event> transitions = new ArrayList<>();
+		for (Ticket ticket : byID) {
+			textIndex.add(ticket.getID(), ticket.getDescription());
+			long resolved = TicketColumns.UNRESOLVED;
+			Iterator<Event> history = ticket.getOwnHistory().iterator();
+			while (history.hasNext()) {
+				Event event = history.next();
+				events.add(event);
+				textIndex.add(ticket.getID(), event.getNote());
+				if (event.getNewStatus() != null) {
+					transitions.add(event);
+				}
+				if (event.getNewStatus() == Status.RESOLVED) {
+					resolved = Math.max(resolved, event.getTimestamp());
+				}
+				rollUp(ticket, event, event.getNewStatus() != Status.CREATED 
+						? ticket.getTechnician() : null);
+			}
+			if (ticket.getStatus() != Status.RESOLVED) {
+				duplicates.add(ticket.getID(), ticket.getDescription());
+				escalator.track(ticket.getID(), ticket.getPriority(), 
+						ticket.getCreatedTime());
+			}
+			columns.update(ticket, ticket.getStatus() == Status.RESOLVED 
+					? resolved : TicketColumns.UNRESOLVED);
+			
+			Technician technician = ticket.getTechnician();
+			if (technician != null && ticket.getStatus() != Status.RESOLVED) {
+				technician.addActiveTicket(ticket);
+			}
+			workload.add(technician, ticket.getStatus(), ticket.getPriority());
+			
+			long created = ticket.getCreatedTime();
+			ticket.getOwnTags().forEach(tag -> {
+				tagTrends.record(tag, created);
+				tagIndex.recordUse(tag);
+			});
+			
+			snapshot = snapshot.withTicket(ticket, null, null);
+		}
+		
+		// Histories don't record technicians, so we credit each ticket's
+		// current technician with all of its assigned time:
+		transitions.sort(null);
+		Status[] lastStatus = new Status[byID.size() + 1];
+		for (Event transition : transitions) {
+			int ID = transition.getTicketID();
+			Technician technician = ticketsByID.get(ID - 1).getTechnician();
+			Status oldStatus = lastStatus[ID];
+			Status newStatus = transition.getNewStatus();
+			asOf.record(transition.getTimestamp(), 
+					oldStatus, oldStatus != null && oldStatus != Status.CREATED ? technician : null,
+					newStatus, newStatus != Status.CREATED ? technician : null);
+			lastStatus[ID] = newStatus;
+		}
+		
+		nextID = byID.size();
+		for (Index index : Index.values()) {
+			changed(index);
+		}
+	}
+	
 	public Stream<Ticket> getTickets() {
 		return tickets.stream();
 	}
 	
+	/**
+	 * IDs are generated in sequence starting at 1, so we can look
+	 * tickets up by position.
+	 */
 	public Ticket getTicketByID(int ID) {
-		return tickets.stream()
-				.filter(t -> t.getID() == ID)
-				.findFirst()
-				.orElse(null);
+		return ID > 0 && ID <= ticketsByID.size() ? ticketsByID.get(ID - 1) : null;
 	}
 	
 	public Stream<Ticket> getTicketsByStatus(Status status) {
@@ -84,24 +528,309 @@ public class HelpDesk implements HelpDeskAPI {
 	}
 
 	public int getAverageMinutesToResolve() {
-		return (int) getTicketsByStatus(Status.RESOLVED)
+		return (int) analyticsStream()
+				.filter(t -> t.getStatus() == Status.RESOLVED)
 				.mapToInt(Ticket::getMinutesToResolve).average().getAsDouble();
 	}
 
 	public Map<String, Double> getAverageMinutesToResolvePerTechnician() {
-		return getTicketsByStatus(Status.RESOLVED)
+		return analyticsStream()
+				.filter(t -> t.getStatus() == Status.RESOLVED)
 				.collect(Collectors.groupingBy(t -> t.getTechnician().getID(),
 						Collectors.averagingInt(Ticket::getMinutesToResolve)));
 	}		
 
+	/**
+	 * In analytics mode, we scan in parallel and then sort the matches back
+	 * into priority order; the results are gathered up before we return them,
+	 * so that the caller's own processing doesn't run in parallel by surprise.
+	 */
 	public Stream<Ticket> getTicketsByText(String text) {
+		if (parallelAnalytics) {
+			return analyticsStream().filter(t -> t.includesText(text))
+					.sorted().toList().stream();
+		}
 		return tickets.stream().filter(t -> t.includesText(text));
 	}
 	
+	/**
+	 * Returns up to the given number of tickets that best match the query,
+	 * best first. Each ticket's own description and notes are scored by
+	 * BM25, and the score is boosted for higher priority and for recent
+	 * activity. See {@link TextIndex}.
+	 */
+	public List<Ticket> searchTickets(String query, int count) {
+		long now = clock.getTime();
+		return textIndex.search(query, count, ID -> boost(ID, now), MAX_BOOST)
+				.stream().map(hit -> getTicketByID(hit.ID())).toList();
+	}
+	
+	private double boost(int ID, long now) {
+		Ticket ticket = getTicketByID(ID);
+		double age = Math.max(0, now - ticket.getLastUpdatedTime());
+		return (1 + PRIORITY_BOOST * ticket.getPriority().ordinal()) *
+				(1 + RECENCY_BOOST * Math.pow(0.5, age / RECENCY_HALF_LIFE));
+	}
+	
+	/**
+	 * Computes aggregates over the tickets created in the given time range,
+	 * in one pass over our columnar copy of the tickets. This is meant for
+	 * large historical reports; see {@link TicketReport}.
+	 */
+	public TicketReport getReport(long from, long to) {
+		return columns.report(from, to, 
+				techniciansByOrdinal.stream().map(Technician::getID).toList());
+	}
+	
+	/**
+	 * Adds a rule that open tickets at the given priority are escalated 
+	 * to the next level once they've been at that priority for the given
+	 * number of milliseconds. See {@link #runEscalations}.
+	 */
+	public void addEscalationRule(Priority priority, long limit) {
+		escalator.addRule(priority, limit);
+	}
+	
+	/**
+	 * Escalates every open ticket that is due under our rules as of the
+	 * current time on our clock, and returns the number escalated. 
+	 * A ticket that's escalated starts its time at the new priority now,
+	 * so it moves up at most one level per call.
+	 */
+	public int runEscalations() {
+		List<Integer> due = escalator.getDue(clock.getTime());
+		for (int ID : due) {
+			getTicketByID(ID).escalate("Escalated automatically.");
+		}
+		return due.size();
+	}
+	
+	/**
+	 * Returns open tickets whose descriptions are nearly the same as the
+	 * given one, most similar first. See {@link DuplicateIndex}.
+	 */
+	public List<Ticket> findDuplicates(String description) {
+		return duplicates.find(description).stream()
+				.map(match -> getTicketByID(match.ID())).toList();
+	}
+	
+	/**
+	 * Returns the open ticket that the given ticket was found to duplicate
+	 * when it was created, or null if there was none.
+	 */
+	public Ticket getDuplicateOf(int ID) {
+		Integer original = duplicateOf.get(ID);
+		return original != null ? getTicketByID(original) : null;
+	}
+	
+	/**
+	 * Reads the most recent events straight off of our event index,
+	 * rather than merging and sorting every ticket's history.
+	 */
 	public Stream<Event> getLatestActivity(int count) {
-		return tickets.stream()
-				.flatMap(Ticket::getHistory)
-				.sorted(Collections.reverseOrder())
-				.limit(count);
+		return events.descendingSet().stream().limit(count);
+	}
+	
+	public Stream<Ticket> getTicketPage(Ticket after, int count) {
+		return after != null
+				? getTicketPage(after.getPriority(), after.getID(), count)
+				: tickets.stream().limit(count);
+	}
+	
+	public Stream<Ticket> getTicketPage(Priority priority, int ID, int count) {
+		return tickets.tailSet(Ticket.key(priority, ID), false)
+				.stream().limit(count);
+	}
+	
+	public Stream<Event> getEventPage(Event after, int count) {
+		return after != null
+				? getEventPage(after.getTimestamp(), after.getSequence(), count)
+				: events.stream().limit(count);
+	}
+	
+	public Stream<Event> getEventPage(long timestamp, long sequence, int count) {
+		return events.tailSet(Event.key(timestamp, sequence), false)
+				.stream().limit(count);
+	}
+	
+	/**
+	 * Returns an immutable view of the desk as it is now, which stays
+	 * consistent however the desk changes afterwards. We keep the latest
+	 * snapshot current as the desk changes, so this costs nothing, and
+	 * it's safe to hand the result to another thread.
+	 */
+	public DeskSnapshot snapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * Returns the ticket that the given technician should work on next,
+	 * or null if there is none or there's no such technician.
+	 * See {@link Technician#getNextTicket}.
+	 */
+	public Ticket getNextTicket(String techID) {
+		Technician technician = techniciansByID.get(techID);
+		return technician != null ? technician.getNextTicket() : null;
+	}
+	
+	/**
+	 * Returns the status that the given ticket had at the given time,
+	 * or null if there's no such ticket or it didn't exist yet.
+	 */
+	public Status getStatusAsOf(int ticketID, long time) {
+		Ticket ticket = getTicketByID(ticketID);
+		return ticket != null ? ticket.getStatusAsOf(time) : null;
+	}
+	
+	/**
+	 * Returns the number of tickets that were open -- created but not
+	 * resolved -- at the given time.
+	 */
+	public int getBacklogAsOf(long time) {
+		return asOf.getBacklog(time);
+	}
+	
+	/**
+	 * Returns a map with keys that are technician IDs and values that are
+	 * the number of open tickets that technician held at the given time.
+	 */
+	public Map<String,Integer> getOpenTicketsPerTechnicianAsOf(long time) {
+		int[] counts = asOf.getOpenByTechnician(time);
+		Map<String,Integer> result = new HashMap<>();
+		for (Technician technician : techniciansByOrdinal) {
+			int ordinal = technician.getOrdinal();
+			result.put(technician.getID(), ordinal < counts.length ? counts[ordinal] : 0);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the number of tickets assigned to the given technician
+	 * that have the given status and priority, or zero if there's no 
+	 * such technician. This reads a live count and doesn't touch any tickets.
+	 */
+	public int getWorkload(String techID, Status status, Priority priority) {
+		Technician technician = techniciansByID.get(techID);
+		return technician != null 
+				? workload.count(technician.getOrdinal(), status, priority) : 0;
+	}
+	
+	/**
+	 * Returns the number of tickets assigned to the given technician
+	 * that have the given status, or zero if there's no such technician.
+	 */
+	public int getWorkload(String techID, Status status) {
+		Technician technician = techniciansByID.get(techID);
+		return technician != null 
+				? workload.count(technician.getOrdinal(), status) : 0;
+	}
+	
+	/**
+	 * Returns the number of tickets with the given status and priority,
+	 * across all technicians.
+	 */
+	public int getWorkload(Status status, Priority priority) {
+		return workload.total(status, priority);
+	}
+	
+	/**
+	 * Keeps the system-wide event index, the text index, and the rollups
+	 * current.
+	 */
+	public void eventAdded(Ticket ticket, Event event) {
+		events.add(event);
+		textIndex.add(ticket.getID(), event.getNote());
+		rollUp(ticket, event, ticket.getTechnician());
+		changed(Index.TEXT);
+	}
+	
+	/**
+	 * Counts a change of status in the rollups, crediting the given 
+	 * technician. Tickets aren't assigned until after they're created,
+	 * so creations and reopenings are always counted as unassigned.
+	 */
+	private void rollUp(Ticket ticket, Event event, Technician technician) {
+		Status status = event.getNewStatus();
+		if (status == null || status == Status.ASSIGNED) {
+			return;
+		}
+		
+		long time = event.getTimestamp();
+		String techID = technician != null ? technician.getID() : null;
+		Priority priority = ticket.getPriority();
+		switch (status) {
+		case CREATED:
+			rollups.record(time, Measure.CREATED, techID, priority, 1);
+			if (ticket instanceof ReopenedTicket) {
+				rollups.record(time, Measure.REOPENED, techID, priority, 1);
+			}
+			break;
+		case WAITING:
+			rollups.record(time, Measure.WAITING, techID, priority, 1);
+			break;
+		default:
+			rollups.record(time, Measure.RESOLVED, techID, priority, 1);
+			rollups.record(time, Measure.MINUTES_TO_RESOLVE, techID, priority, 
+					(time - ticket.getCreatedTime()) / 60000);
+		}
+	}
+	
+	/**
+	 * Moves the ticket to its new cell in the workload cube, and
+	 * derives the next snapshot.
+	 */
+	public void ticketChanged(Ticket ticket, Technician oldTechnician,
+			Status oldStatus, Priority oldPriority) {
+		workload.remove(oldTechnician, oldStatus, oldPriority);
+		workload.add(ticket.getTechnician(), ticket.getStatus(), ticket.getPriority());
+		snapshot = snapshot.withTicket(ticket, oldStatus, oldTechnician);
+		columns.update(ticket, ticket.getStatus() == Status.RESOLVED 
+				? ticket.getLastUpdatedTime() : TicketColumns.UNRESOLVED);
+		
+		if (oldStatus != ticket.getStatus() || oldTechnician != ticket.getTechnician()) {
+			changed(Index.STATUS);
+			if (ticket.getStatus() == Status.RESOLVED) {
+				duplicates.remove(ticket.getID());
+			}
+			asOf.record(ticket.getLastUpdatedTime(), oldStatus, oldTechnician,
+					ticket.getStatus(), ticket.getTechnician());
+		}
+		if (oldPriority != null && oldPriority != ticket.getPriority()) {
+			tickets.add(ticket);
+			changed(Index.PRIORITY);
+		}
+		
+		if (ticket.getStatus() == Status.RESOLVED) {
+			escalator.untrack(ticket.getID());
+		} else if (oldStatus == null || oldPriority != ticket.getPriority()) {
+			escalator.track(ticket.getID(), ticket.getPriority(), 
+					ticket.getLastUpdatedTime());
+		}
+	}
+	
+	/**
+	 * Takes the ticket out of the master set while its priority changes;
+	 * we put it back in {@link #ticketChanged ticketChanged}.
+	 */
+	public void priorityChanging(Ticket ticket) {
+		tickets.remove(ticket);
+	}
+	
+	public void tagAdded(Ticket ticket, Tag tag) {
+		changed(Index.TAGS);
+		tagTrends.record(tag, clock.getTime());
+		tagIndex.recordUse(tag);
+		refreshTags(ticket);
+	}
+	
+	/**
+	 * Updates the snapshot state of the given ticket after a change in its
+	 * tags, and that of any tickets that reopen it, which show its tags too.
+	 */
+	private void refreshTags(Ticket ticket) {
+		snapshot = snapshot.withTags(ticket);
+		for (Ticket reopened : reopenedByID.getOrDefault(ticket.getID(), List.of())) {
+			refreshTags(reopened);
+		}
 	}
 }
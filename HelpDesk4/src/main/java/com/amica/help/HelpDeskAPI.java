@@ -88,4 +88,35 @@ public interface HelpDeskAPI {
 	 * Returns a stream of the most recent N events, system-side.
 	 */
 	public Stream<Event> getLatestActivity(int count);
+	
+	/////////////////////////////////////////////////////////////////
+	// Paged queries:
+	
+	/**
+	 * Returns up to N tickets, in the usual priority-and-ID order,
+	 * starting just after the given ticket; or the first N tickets
+	 * if the given ticket is null. Pass the last ticket of one page
+	 * to get the next one.
+	 */
+	public Stream<Ticket> getTicketPage(Ticket after, int count);
+	
+	/**
+	 * Returns up to N tickets, starting just after the position that
+	 * a ticket of the given priority and ID would hold. This lets a
+	 * caller resume paging without holding on to the ticket itself.
+	 */
+	public Stream<Ticket> getTicketPage(Priority priority, int ID, int count);
+	
+	/**
+	 * Returns up to N events, system-wide and in chronological order,
+	 * starting just after the given event; or the first N events
+	 * if the given event is null.
+	 */
+	public Stream<Event> getEventPage(Event after, int count);
+
+	/**
+	 * Returns up to N events, starting just after the position that
+	 * an event with the given timestamp and sequence number would hold.
+	 */
+	public Stream<Event> getEventPage(long timestamp, long sequence, int count);
 }
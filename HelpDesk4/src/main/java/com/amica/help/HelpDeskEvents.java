@@ -0,0 +1,194 @@
+package com.amica.help;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for the help desk, so that a recording
+ * can show what the desk was doing when latency spiked. None of these
+ * are recorded unless they're enabled in a recording, and while they're
+ * disabled each one costs little more than a check of a flag: we only
+ * fill in the fields of an event that's going to be committed.
+ *
+ * Our events extend {@link jdk.jfr.Event}, which we always name in full
+ * so as not to confuse it with a ticket's {@link Event}.
+ */
+public class HelpDeskEvents {
+
+	public static final String CATEGORY = "Help Desk";
+
+	/**
+	 * Covers the creation of a ticket by a help desk, from building the
+	 * ticket through to its assignment, and breaks out the time spent
+	 * choosing a technician.
+	 */
+	@Name("com.amica.help.TicketCreated")
+	@Label("Ticket Created")
+	@Category(CATEGORY)
+	public static class TicketCreated extends jdk.jfr.Event {
+
+		@Label("Ticket ID")
+		int ticketID;
+
+		@Label("Priority")
+		String priority;
+
+		@Label("Technician ID")
+		String technicianID;
+
+		@Label("Tag Count")
+		int tagCount;
+
+		@Label("Routing Time")
+		@Description("Time spent choosing a technician")
+		@Timespan(Timespan.NANOSECONDS)
+		long routingTime;
+
+		private transient long routingStart;
+
+		void startRouting() {
+			if (isEnabled()) {
+				routingStart = System.nanoTime();
+			}
+		}
+
+		void endRouting() {
+			if (isEnabled()) {
+				routingTime = System.nanoTime() - routingStart;
+			}
+		}
+
+		void commit(Ticket ticket) {
+			end();
+			if (shouldCommit()) {
+				ticketID = ticket.getID();
+				priority = ticket.getPriority().name();
+				Technician technician = ticket.getTechnician();
+				technicianID = technician != null ? technician.getID() : null;
+				tagCount = (int) ticket.getTags().count();
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Records a change in a ticket's status, technician, or priority.
+	 * When a ticket is first created, the old values are null.
+	 */
+	@Name("com.amica.help.TicketTransition")
+	@Label("Ticket Transition")
+	@Category(CATEGORY)
+	public static class TicketTransition extends jdk.jfr.Event {
+
+		@Label("Ticket ID")
+		int ticketID;
+
+		@Label("Old Status")
+		String oldStatus;
+
+		@Label("New Status")
+		String newStatus;
+
+		@Label("Old Technician ID")
+		String oldTechnicianID;
+
+		@Label("New Technician ID")
+		String newTechnicianID;
+
+		@Label("Old Priority")
+		String oldPriority;
+
+		@Label("New Priority")
+		String newPriority;
+
+		private static String name(Enum<?> value) {
+			return value != null ? value.name() : null;
+		}
+
+		private static String ID(Technician technician) {
+			return technician != null ? technician.getID() : null;
+		}
+
+		static void emit(Ticket ticket, Technician oldTechnician,
+				Ticket.Status oldStatus, Ticket.Priority oldPriority) {
+			TicketTransition event = new TicketTransition();
+			if (event.shouldCommit()) {
+				event.ticketID = ticket.getID();
+				event.oldStatus = name(oldStatus);
+				event.newStatus = name(ticket.getStatus());
+				event.oldTechnicianID = ID(oldTechnician);
+				event.newTechnicianID = ID(ticket.getTechnician());
+				event.oldPriority = name(oldPriority);
+				event.newPriority = name(ticket.getPriority());
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Covers a tag lookup that couldn't be answered from the registry's
+	 * shortcuts, as when a spelling is seen for the first time or the
+	 * synonyms have just changed.
+	 */
+	@Name("com.amica.help.TagMiss")
+	@Label("Tag Lookup Miss")
+	@Category(CATEGORY)
+	public static class TagMiss extends jdk.jfr.Event {
+
+		@Label("Value")
+		String value;
+
+		@Label("Tag")
+		String tag;
+
+		@Label("Created")
+		@Description("Whether this lookup created a new tag")
+		boolean created;
+
+		void commit(String value, Tag tag, boolean created) {
+			end();
+			if (shouldCommit()) {
+				this.value = value;
+				this.tag = tag.getValue();
+				this.created = created;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Records one call through an {@link InstrumentedHelpDesk}. We take
+	 * the elapsed time from the decorator's own measurement, so the event
+	 * is stamped at the end of the call and carries its latency as a field.
+	 */
+	@Name("com.amica.help.Operation")
+	@Label("Help Desk Operation")
+	@Category(CATEGORY)
+	public static class Operation extends jdk.jfr.Event {
+
+		@Label("Operation")
+		String operation;
+
+		@Label("Elapsed")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsed;
+
+		@Label("Result Size")
+		@Description("Number of results, or -1 if the operation doesn't return any")
+		long resultSize;
+
+		static void emit(InstrumentedHelpDesk.Operation operation,
+				long elapsed, long resultSize) {
+			Operation event = new Operation();
+			if (event.shouldCommit()) {
+				event.operation = operation.name();
+				event.elapsed = elapsed;
+				event.resultSize = resultSize;
+				event.commit();
+			}
+		}
+	}
+}
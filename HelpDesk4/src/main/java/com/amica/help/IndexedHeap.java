@@ -0,0 +1,152 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binary min-heap that also tracks the position of each item,
+ * so that an item can be removed, or moved after its sort key has changed,
+ * in O(log n) time. Items must have consistent equals() and hashCode()
+ * implementations; an item can appear in the heap only once.
+ */
+public class IndexedHeap<T> {
+
+	private List<T> heap = new ArrayList<>();
+	private Map<T,Integer> positions = new HashMap<>();
+	private Comparator<? super T> comparator;
+	
+	public IndexedHeap(Comparator<? super T> comparator) {
+		this.comparator = comparator;
+	}
+	
+	public int size() {
+		return heap.size();
+	}
+	
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+	
+	public boolean contains(T item) {
+		return positions.containsKey(item);
+	}
+	
+	/**
+	 * Returns the least item, or null if the heap is empty.
+	 */
+	public T peek() {
+		return heap.isEmpty() ? null : heap.get(0);
+	}
+	
+	/**
+	 * Removes and returns the least item, or null if the heap is empty.
+	 */
+	public T poll() {
+		T result = peek();
+		if (result != null) {
+			remove(result);
+		}
+		return result;
+	}
+	
+	/**
+	 * Adds the item, returning false if it's already in the heap.
+	 */
+	public boolean add(T item) {
+		if (positions.containsKey(item)) {
+			return false;
+		}
+		heap.add(item);
+		positions.put(item, heap.size() - 1);
+		siftUp(heap.size() - 1);
+		return true;
+	}
+	
+	/**
+	 * Removes the item, returning false if it wasn't in the heap.
+	 */
+	public boolean remove(T item) {
+		Integer position = positions.remove(item);
+		if (position == null) {
+			return false;
+		}
+		T last = heap.remove(heap.size() - 1);
+		if (position < heap.size()) {
+			heap.set(position, last);
+			positions.put(last, position);
+			reposition(position);
+		}
+		return true;
+	}
+	
+	/**
+	 * Restores heap order after the given item's sort key has changed.
+	 * Returns false if the item isn't in the heap.
+	 */
+	public boolean update(T item) {
+		Integer position = positions.get(item);
+		if (position == null) {
+			return false;
+		}
+		reposition(position);
+		return true;
+	}
+	
+	/**
+	 * Returns the items in heap order, which is not fully sorted.
+	 */
+	public List<T> toList() {
+		return List.copyOf(heap);
+	}
+	
+	private void reposition(int position) {
+		if (siftUp(position) == position) {
+			siftDown(position);
+		}
+	}
+	
+	private int siftUp(int position) {
+		T item = heap.get(position);
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			T parentItem = heap.get(parent);
+			if (comparator.compare(item, parentItem) >= 0) {
+				break;
+			}
+			place(parentItem, position);
+			position = parent;
+		}
+		place(item, position);
+		return position;
+	}
+	
+	private void siftDown(int position) {
+		T item = heap.get(position);
+		int size = heap.size();
+		while (true) {
+			int child = position * 2 + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && 
+					comparator.compare(heap.get(child + 1), heap.get(child)) < 0) {
+				++child;
+			}
+			T childItem = heap.get(child);
+			if (comparator.compare(childItem, item) >= 0) {
+				break;
+			}
+			place(childItem, position);
+			position = child;
+		}
+		place(item, position);
+	}
+	
+	private void place(T item, int position) {
+		heap.set(position, item);
+		positions.put(item, position);
+	}
+}
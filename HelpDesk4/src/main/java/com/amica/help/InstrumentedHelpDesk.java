@@ -0,0 +1,253 @@
+package com.amica.help;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * Decorator for any {@link HelpDeskAPI} that records latency, throughput,
+ * and result-size metrics for each operation. Metrics can be read directly,
+ * published as JMX MBeans, or written out as a text snapshot on a schedule.
+ * 
+ * Queries that return streams are evaluated in full before they return,
+ * so that the recorded latency reflects the work of the query and not
+ * just the construction of a lazy stream; the caller gets a stream over
+ * the gathered results.
+ * 
+ * Each call is also recorded as a {@link HelpDeskEvents.Operation} event
+ * for the flight recorder, when that event is enabled.
+ */
+public class InstrumentedHelpDesk implements HelpDeskAPI {
+
+	public enum Operation { 
+		ADD_TECHNICIAN, CREATE_TICKET, REOPEN_TICKET, 
+		GET_TICKET_BY_ID, GET_TICKETS_BY_STATUS, GET_TICKETS_BY_NOT_STATUS,
+		GET_TICKETS_BY_TECHNICIAN, GET_TICKETS_WITH_ANY_TAG,
+		GET_AVERAGE_MINUTES_TO_RESOLVE, 
+		GET_AVERAGE_MINUTES_TO_RESOLVE_PER_TECHNICIAN,
+		GET_TICKETS_BY_TEXT, GET_LATEST_ACTIVITY,
+		GET_TICKET_PAGE, GET_EVENT_PAGE
+	}
+	
+	public static final String DOMAIN = "com.amica.help";
+	
+	private HelpDeskAPI target;
+	private Map<Operation,OperationMetrics> metrics = new EnumMap<>(Operation.class);
+	private ScheduledExecutorService reporter;
+	private String registeredName;
+	
+	public InstrumentedHelpDesk(HelpDeskAPI target) {
+		this.target = target;
+		for (Operation operation : Operation.values()) {
+			metrics.put(operation, new OperationMetrics(operation.name()));
+		}
+	}
+	
+	public OperationMetrics getMetrics(Operation operation) {
+		return metrics.get(operation);
+	}
+	
+	/**
+	 * Returns a text report with one line for each operation that has
+	 * been called at least once.
+	 */
+	public String getSnapshot() {
+		StringBuilder builder = new StringBuilder();
+		for (OperationMetrics operation : metrics.values()) {
+			if (operation.getCount() != 0) {
+				builder.append(operation).append(System.lineSeparator());
+			}
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * Registers one MBean per operation, under names such as
+	 * <code>com.amica.help:type=HelpDesk,name=main,operation=CREATE_TICKET</code>.
+	 */
+	public void registerMBeans(String name) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			for (Map.Entry<Operation,OperationMetrics> entry : metrics.entrySet()) {
+				server.registerMBean(entry.getValue(), objectName(name, entry.getKey()));
+			}
+			registeredName = name;
+		} catch (JMException ex) {
+			throw new IllegalStateException("Couldn't register metrics MBeans.", ex);
+		}
+	}
+	
+	public void unregisterMBeans() {
+		if (registeredName != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try {
+				for (Operation operation : metrics.keySet()) {
+					server.unregisterMBean(objectName(registeredName, operation));
+				}
+				registeredName = null;
+			} catch (JMException ex) {
+				throw new IllegalStateException("Couldn't unregister metrics MBeans.", ex);
+			}
+		}
+	}
+	
+	private static ObjectName objectName(String name, Operation operation) 
+			throws JMException {
+		return new ObjectName(String.format("%s:type=HelpDesk,name=%s,operation=%s", 
+				DOMAIN, ObjectName.quote(name), operation.name()));
+	}
+	
+	/**
+	 * Starts writing a {@link #getSnapshot snapshot} to the given consumer
+	 * at a fixed interval, on a daemon thread.
+	 */
+	public void startReporting(long period, TimeUnit unit, Consumer<String> output) {
+		stopReporting();
+		reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "HelpDesk metrics");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reporter.scheduleAtFixedRate(() -> output.accept(getSnapshot()), 
+				period, period, unit);
+	}
+	
+	public void stopReporting() {
+		if (reporter != null) {
+			reporter.shutdownNow();
+			reporter = null;
+		}
+	}
+	
+	private <T> Stream<T> gather(Operation operation, long start, Stream<T> results) {
+		List<T> gathered = results.toList();
+		record(operation, System.nanoTime() - start, gathered.size());
+		return gathered.stream();
+	}
+	
+	private void record(Operation operation, long start) {
+		long elapsed = System.nanoTime() - start;
+		metrics.get(operation).record(elapsed);
+		HelpDeskEvents.Operation.emit(operation, elapsed, -1);
+	}
+	
+	private void record(Operation operation, long elapsed, long resultSize) {
+		metrics.get(operation).record(elapsed, resultSize);
+		HelpDeskEvents.Operation.emit(operation, elapsed, resultSize);
+	}
+
+	public void addTechnician(String ID, String name, int extension) {
+		long start = System.nanoTime();
+		try {
+			target.addTechnician(ID, name, extension);
+		} finally {
+			record(Operation.ADD_TECHNICIAN, start);
+		}
+	}
+
+	public int createTicket(String originator, String description, Priority priority) {
+		long start = System.nanoTime();
+		try {
+			return target.createTicket(originator, description, priority);
+		} finally {
+			record(Operation.CREATE_TICKET, start);
+		}
+	}
+
+	public int reopenTicket(int priorTicketID, String reason, Priority priority) {
+		long start = System.nanoTime();
+		try {
+			return target.reopenTicket(priorTicketID, reason, priority);
+		} finally {
+			record(Operation.REOPEN_TICKET, start);
+		}
+	}
+
+	public Ticket getTicketByID(int ID) {
+		long start = System.nanoTime();
+		Ticket result = target.getTicketByID(ID);
+		record(Operation.GET_TICKET_BY_ID, 
+				System.nanoTime() - start, result != null ? 1 : 0);
+		return result;
+	}
+
+	public Stream<Ticket> getTicketsByStatus(Status status) {
+		return gather(Operation.GET_TICKETS_BY_STATUS, System.nanoTime(),
+				target.getTicketsByStatus(status));
+	}
+
+	public Stream<Ticket> getTicketsByNotStatus(Status status) {
+		return gather(Operation.GET_TICKETS_BY_NOT_STATUS, System.nanoTime(),
+				target.getTicketsByNotStatus(status));
+	}
+
+	public Stream<Ticket> getTicketsByTechnician(String techID) {
+		return gather(Operation.GET_TICKETS_BY_TECHNICIAN, System.nanoTime(),
+				target.getTicketsByTechnician(techID));
+	}
+
+	public Stream<Ticket> getTicketsWithAnyTag(Tag... tags) {
+		return gather(Operation.GET_TICKETS_WITH_ANY_TAG, System.nanoTime(),
+				target.getTicketsWithAnyTag(tags));
+	}
+
+	public int getAverageMinutesToResolve() {
+		long start = System.nanoTime();
+		try {
+			return target.getAverageMinutesToResolve();
+		} finally {
+			record(Operation.GET_AVERAGE_MINUTES_TO_RESOLVE, start);
+		}
+	}
+
+	public Map<String, Double> getAverageMinutesToResolvePerTechnician() {
+		long start = System.nanoTime();
+		Map<String,Double> result = target.getAverageMinutesToResolvePerTechnician();
+		record(Operation.GET_AVERAGE_MINUTES_TO_RESOLVE_PER_TECHNICIAN, 
+				System.nanoTime() - start, result.size());
+		return result;
+	}
+
+	public Stream<Ticket> getTicketsByText(String text) {
+		return gather(Operation.GET_TICKETS_BY_TEXT, System.nanoTime(),
+				target.getTicketsByText(text));
+	}
+
+	public Stream<Event> getLatestActivity(int count) {
+		return gather(Operation.GET_LATEST_ACTIVITY, System.nanoTime(),
+				target.getLatestActivity(count));
+	}
+
+	public Stream<Ticket> getTicketPage(Ticket after, int count) {
+		return gather(Operation.GET_TICKET_PAGE, System.nanoTime(),
+				target.getTicketPage(after, count));
+	}
+
+	public Stream<Ticket> getTicketPage(Priority priority, int ID, int count) {
+		return gather(Operation.GET_TICKET_PAGE, System.nanoTime(),
+				target.getTicketPage(priority, ID, count));
+	}
+
+	public Stream<Event> getEventPage(Event after, int count) {
+		return gather(Operation.GET_EVENT_PAGE, System.nanoTime(),
+				target.getEventPage(after, count));
+	}
+
+	public Stream<Event> getEventPage(long timestamp, long sequence, int count) {
+		return gather(Operation.GET_EVENT_PAGE, System.nanoTime(),
+				target.getEventPage(timestamp, sequence, count));
+	}
+}
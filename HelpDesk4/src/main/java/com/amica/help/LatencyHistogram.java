@@ -0,0 +1,91 @@
+package com.amica.help;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear histogram of non-negative values, such as
+ * latencies in nanoseconds or result sizes. Each power of two is split 
+ * into 8 buckets, so reported percentiles are within 12.5% of the true
+ * value. Recording a value is lock-free and allocates nothing, so it's
+ * safe to call on every operation.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	
+	private AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private AtomicLong count = new AtomicLong();
+	private AtomicLong total = new AtomicLong();
+	private AtomicLong max = new AtomicLong();
+	
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+	}
+	
+	/**
+	 * Returns the largest value that falls in the given bucket.
+	 */
+	static long highestValueIn(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long mantissa = bucket % SUB_BUCKETS;
+		return ((SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+	
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts.incrementAndGet(bucketOf(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+	
+	public long getCount() {
+		return count.get();
+	}
+	
+	public long getMax() {
+		return max.get();
+	}
+	
+	public double getMean() {
+		long n = count.get();
+		return n != 0 ? (double) total.get() / n : 0;
+	}
+	
+	/**
+	 * Returns an upper bound on the value at the given percentile,
+	 * expressed as a fraction such as 0.99; or zero if nothing has 
+	 * been recorded.
+	 */
+	public long getPercentile(double fraction) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(fraction * n));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+			seen += counts.get(bucket);
+			if (seen >= rank) {
+				return Math.min(highestValueIn(bucket), max.get());
+			}
+		}
+		return max.get();
+	}
+}
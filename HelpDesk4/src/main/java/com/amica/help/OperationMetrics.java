@@ -0,0 +1,83 @@
+package com.amica.help;
+
+/**
+ * Latency and result-size histograms for one operation, 
+ * along with a throughput figure based on the time since we started.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+	private static final long NANOS_PER_MICRO = 1000;
+	private static final double NANOS_PER_SECOND = 1e9;
+	
+	private String name;
+	private long startTime = System.nanoTime();
+	private LatencyHistogram latencies = new LatencyHistogram();
+	private LatencyHistogram resultSizes = new LatencyHistogram();
+	
+	public OperationMetrics(String name) {
+		this.name = name;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public void record(long nanos) {
+		latencies.record(nanos);
+	}
+	
+	public void record(long nanos, long resultSize) {
+		latencies.record(nanos);
+		resultSizes.record(resultSize);
+	}
+	
+	public long getCount() {
+		return latencies.getCount();
+	}
+	
+	public double getCallsPerSecond() {
+		long elapsed = System.nanoTime() - startTime;
+		return elapsed != 0 ? getCount() * NANOS_PER_SECOND / elapsed : 0;
+	}
+	
+	public long getP50Micros() {
+		return latencies.getPercentile(0.5) / NANOS_PER_MICRO;
+	}
+	
+	public long getP99Micros() {
+		return latencies.getPercentile(0.99) / NANOS_PER_MICRO;
+	}
+	
+	public long getP999Micros() {
+		return latencies.getPercentile(0.999) / NANOS_PER_MICRO;
+	}
+	
+	public long getMaxMicros() {
+		return latencies.getMax() / NANOS_PER_MICRO;
+	}
+	
+	public double getMeanResultSize() {
+		return resultSizes.getMean();
+	}
+	
+	public long getP99ResultSize() {
+		return resultSizes.getPercentile(0.99);
+	}
+	
+	public long getMaxResultSize() {
+		return resultSizes.getMax();
+	}
+	
+	@Override
+	public String toString() {
+		String result = String.format
+				("%-40s count=%d rate=%.1f/s p50=%dus p99=%dus p999=%dus max=%dus",
+				name, getCount(), getCallsPerSecond(), getP50Micros(), 
+				getP99Micros(), getP999Micros(), getMaxMicros());
+		if (resultSizes.getCount() != 0) {
+			result += String.format(" size(mean=%.1f p99=%d max=%d)",
+					getMeanResultSize(), getP99ResultSize(), getMaxResultSize());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,26 @@
+package com.amica.help;
+
+/**
+ * JMX view of the metrics gathered for one {@link HelpDeskAPI} operation
+ * by an {@link InstrumentedHelpDesk}. Latencies are in microseconds.
+ */
+public interface OperationMetricsMXBean {
+
+	public long getCount();
+	
+	public double getCallsPerSecond();
+	
+	public long getP50Micros();
+	
+	public long getP99Micros();
+	
+	public long getP999Micros();
+	
+	public long getMaxMicros();
+	
+	public double getMeanResultSize();
+	
+	public long getP99ResultSize();
+	
+	public long getMaxResultSize();
+}
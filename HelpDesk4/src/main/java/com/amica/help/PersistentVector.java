@@ -0,0 +1,99 @@
+package com.amica.help;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An immutable list, stored as a trie of 32-way nodes. Setting or adding
+ * an item copies only the path from the root to that item, and shares
+ * everything else with the original, so each new version costs 
+ * O(log32 n) time and space, and old versions stay valid indefinitely.
+ * Our fields are final and nodes are never changed once they're shared, 
+ * so a vector is safe to hand between threads.
+ */
+public class PersistentVector<T> {
+
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	
+	private static final PersistentVector<?> EMPTY = 
+			new PersistentVector<>(0, 0, new Object[WIDTH]);
+	
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentVector<T> empty() {
+		return (PersistentVector<T>) EMPTY;
+	}
+	
+	private final int size;
+	private final int shift;
+	private final Object[] root;
+	
+	private PersistentVector(int size, int shift, Object[] root) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		checkIndex(index);
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return (T) node[index & MASK];
+	}
+	
+	/**
+	 * Returns a vector like this one but with the given item at the given index.
+	 */
+	public PersistentVector<T> set(int index, T item) {
+		checkIndex(index);
+		return new PersistentVector<>(size, shift, setIn(root, shift, index, item));
+	}
+	
+	/**
+	 * Returns a vector like this one but with the given item added at the end.
+	 * When the trie is full, we grow it by one level.
+	 */
+	public PersistentVector<T> add(T item) {
+		if (size == 1 << (shift + BITS)) {
+			Object[] newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			return new PersistentVector<>(size + 1, shift + BITS, 
+					setIn(newRoot, shift + BITS, size, item));
+		}
+		return new PersistentVector<>(size + 1, shift, setIn(root, shift, size, item));
+	}
+	
+	public Stream<T> stream() {
+		return IntStream.range(0, size).mapToObj(this::get);
+	}
+	
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException
+				(String.format("Index %d out of bounds for size %d.", index, size));
+		}
+	}
+	
+	private static Object[] setIn(Object[] node, int level, int index, Object item) {
+		Object[] copy = node != null ? node.clone() : new Object[WIDTH];
+		if (level == 0) {
+			copy[index & MASK] = item;
+		} else {
+			int slot = (index >>> level) & MASK;
+			copy[slot] = setIn((Object[]) copy[slot], level - BITS, index, item);
+		}
+		return copy;
+	}
+}
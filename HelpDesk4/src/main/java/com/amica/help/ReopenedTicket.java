@@ -1,5 +1,7 @@
 package com.amica.help;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.stream.Stream;
 
 import lombok.Getter;
@@ -15,9 +17,35 @@ public class ReopenedTicket extends Ticket {
 	private Ticket priorTicket;
 	
 	public ReopenedTicket(int ID, Ticket priorTicket, String reason, Priority priority) {
-		super(ID, priorTicket.getOriginator(), reason, priority);
+		this(ID, priorTicket, reason, priority, null, null);
+	}
+	
+	public ReopenedTicket(int ID, Ticket priorTicket, String reason, Priority priority, 
+			Tenant tenant, TicketListener listener) {
+		this(ID, priorTicket, reason, priority, priorTicket.getTechnician(), 
+				tenant, listener);
+	}
+	
+	/**
+	 * Creates a reopened ticket and assigns it to the given technician,
+	 * as when the prior ticket's technician has left the help desk.
+	 */
+	ReopenedTicket(int ID, Ticket priorTicket, String reason, Priority priority,
+			Technician technician, Tenant tenant, TicketListener listener) {
+		super(ID, priorTicket.getOriginator(), reason, priority, tenant, listener);
+		this.priorTicket = priorTicket;
+		assign(technician);
+	}
+	
+	/**
+	 * Restores a reopened ticket, as when importing historical tickets.
+	 */
+	ReopenedTicket(int ID, Ticket priorTicket, String reason, Priority priority,
+			Status status, Technician technician, List<Event> history, 
+			Collection<Tag> tags, Tenant tenant, TicketListener listener) {
+		super(ID, priorTicket.getOriginator(), reason, priority, status, 
+				technician, history, tags, tenant, listener);
 		this.priorTicket = priorTicket;
-		assign(priorTicket.getTechnician());
 	}
 	
 	@Override
@@ -25,9 +53,15 @@ public class ReopenedTicket extends Ticket {
 		return Stream.concat(priorTicket.getHistory(), super.getHistory());
 	}
 	
+	/**
+	 * Our listener may ask for tags while the base constructor is still
+	 * running, before we know the prior ticket.
+	 */
 	@Override
 	public Stream<Tag> getTags() {
-		return Stream.concat(priorTicket.getTags(), super.getTags());
+		return priorTicket != null 
+				? Stream.concat(priorTicket.getTags(), super.getTags())
+				: super.getTags();
 	}
 	
 	@Override
@@ -0,0 +1,151 @@
+package com.amica.help;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.amica.help.Ticket.Priority;
+
+import lombok.Getter;
+
+/**
+ * Hourly and daily tallies of ticket activity, broken down by technician
+ * and priority, kept current as each event is recorded so that a dashboard
+ * can read them without scanning any history. Buckets start on the hour
+ * and at midnight in the {@link Clock#OFFSET} zone, and are created the
+ * first time anything happens in them.
+ */
+public class Rollups {
+
+	public enum Granularity {
+		HOURLY(60 * 60 * 1000), DAILY(24 * 60 * 60 * 1000);
+
+		@Getter
+		private final long width;
+
+		private Granularity(long width) {
+			this.width = width;
+		}
+	}
+
+	/**
+	 * What we count: tickets created, resolved, put on hold, and reopened;
+	 * and the total minutes from creation to resolution of the tickets
+	 * resolved, from which we can find the average.
+	 */
+	public enum Measure { CREATED, RESOLVED, WAITING, REOPENED, MINUTES_TO_RESOLVE }
+
+	private static final int PRIORITIES = Priority.values().length;
+	private static final long OFFSET = Clock.OFFSET.getTotalSeconds() * 1000L;
+
+	/**
+	 * The tallies for one period. For each technician ID -- or null,
+	 * for events on unassigned tickets -- we hold one row of values,
+	 * by measure and then by priority.
+	 */
+	public static class Bucket {
+
+		@Getter
+		private Granularity granularity;
+		@Getter
+		private long start;
+		private Map<String,long[]> values = new HashMap<>();
+
+		private Bucket(Granularity granularity, long start) {
+			this.granularity = granularity;
+			this.start = start;
+		}
+
+		public long getEnd() {
+			return start + granularity.getWidth();
+		}
+
+		private void add(Measure measure, String technicianID, Priority priority, long amount) {
+			values.computeIfAbsent(technicianID,
+					k -> new long[Measure.values().length * PRIORITIES])
+				[measure.ordinal() * PRIORITIES + priority.ordinal()] += amount;
+		}
+
+		public long get(Measure measure, String technicianID, Priority priority) {
+			long[] row = values.get(technicianID);
+			return row != null ? row[measure.ordinal() * PRIORITIES + priority.ordinal()] : 0;
+		}
+
+		public long getTotal(Measure measure, String technicianID) {
+			long result = 0;
+			for (Priority priority : Priority.values()) {
+				result += get(measure, technicianID, priority);
+			}
+			return result;
+		}
+
+		public long getTotal(Measure measure, Priority priority) {
+			long result = 0;
+			for (String technicianID : values.keySet()) {
+				result += get(measure, technicianID, priority);
+			}
+			return result;
+		}
+
+		public long getTotal(Measure measure) {
+			long result = 0;
+			for (Priority priority : Priority.values()) {
+				result += getTotal(measure, priority);
+			}
+			return result;
+		}
+	}
+
+	private Map<Granularity,NavigableMap<Long,Bucket>> buckets = new HashMap<>();
+
+	public Rollups() {
+		for (Granularity granularity : Granularity.values()) {
+			buckets.put(granularity, new TreeMap<>());
+		}
+	}
+
+	/**
+	 * Returns the start of the period of the given granularity that
+	 * includes the given time.
+	 */
+	public static long startOf(Granularity granularity, long time) {
+		long width = granularity.getWidth();
+		return Math.floorDiv(time + OFFSET, width) * width - OFFSET;
+	}
+
+	/**
+	 * Adds the given amount to one measure, in the hourly and daily
+	 * buckets that include the given time.
+	 */
+	public void record(long time, Measure measure, String technicianID,
+			Priority priority, long amount) {
+		for (Granularity granularity : Granularity.values()) {
+			buckets.get(granularity).computeIfAbsent(startOf(granularity, time),
+					start -> new Bucket(granularity, start))
+				.add(measure, technicianID, priority, amount);
+		}
+	}
+
+	/**
+	 * Returns the bucket that includes the given time; it will be empty
+	 * if nothing has happened in that period.
+	 */
+	public Bucket getBucket(Granularity granularity, long time) {
+		long start = startOf(granularity, time);
+		Bucket bucket = buckets.get(granularity).get(start);
+		return bucket != null ? bucket : new Bucket(granularity, start);
+	}
+
+	/**
+	 * Returns the buckets, in time order, in which anything happened
+	 * between the given times; the first will be the one that includes
+	 * the start time, and the rest must start before the end time.
+	 */
+	public Collection<Bucket> getBuckets(Granularity granularity, long from, long to) {
+		return Collections.unmodifiableCollection(buckets.get(granularity)
+				.subMap(startOf(granularity, from), true, to, false).values());
+	}
+}
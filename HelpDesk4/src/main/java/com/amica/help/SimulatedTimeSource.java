@@ -0,0 +1,39 @@
+package com.amica.help;
+
+/**
+ * A time source that only moves when it's told to. Each instance keeps its 
+ * own time, so separate simulations can run side by side; the time is 
+ * held in a volatile field so that it can be set on one thread and read
+ * on others.
+ */
+public class SimulatedTimeSource implements TimeSource {
+
+	private volatile long time;
+	
+	public SimulatedTimeSource() {
+	}
+	
+	public SimulatedTimeSource(long milliseconds) {
+		this.time = milliseconds;
+	}
+	
+	public long getTime() {
+		return time;
+	}
+	
+	public void setTime(long milliseconds) {
+		time = milliseconds;
+	}
+	
+	/**
+	 * Sets the time from a string in the {@link Clock#format format}
+	 * that the {@link Clock} uses.
+	 */
+	public void setTime(String dateAndTime) {
+		time = Clock.parse(dateAndTime);
+	}
+	
+	public synchronized void advance(long milliseconds) {
+		time += milliseconds;
+	}
+}
@@ -0,0 +1,77 @@
+package com.amica.help;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Chooses a technician for a new ticket: the least-busy technician
+ * with a skill that matches one of the ticket's tags, or the least-busy
+ * technician overall if no one has a matching skill. We keep one heap
+ * of technicians per skill, plus one of all technicians, ordered by
+ * number of active tickets and then by ID; technicians let us know when
+ * their load changes, so each choice costs O(log T) at most.
+ */
+public class SkillRouter {
+
+	public static final Comparator<Technician> LEAST_BUSY = 
+			Comparator.comparingInt(Technician::getActiveTicketCount)
+				.thenComparing(Technician::getID);
+	
+	private IndexedHeap<Technician> all = new IndexedHeap<>(LEAST_BUSY);
+	private Map<Tag,IndexedHeap<Technician>> bySkill = new HashMap<>();
+	
+	public void addTechnician(Technician technician) {
+		all.add(technician);
+		technician.getSkills().forEach(skill -> skillAdded(technician, skill));
+	}
+	
+	public void removeTechnician(Technician technician) {
+		all.remove(technician);
+		technician.getSkills().forEach(skill -> {
+			IndexedHeap<Technician> heap = bySkill.get(skill);
+			if (heap != null) {
+				heap.remove(technician);
+			}
+		});
+	}
+	
+	public void skillAdded(Technician technician, Tag skill) {
+		if (all.contains(technician)) {
+			bySkill.computeIfAbsent(skill, s -> new IndexedHeap<>(LEAST_BUSY))
+				.add(technician);
+		}
+	}
+	
+	public void loadChanged(Technician technician) {
+		if (all.update(technician)) {
+			technician.getSkills().forEach(skill -> bySkill.get(skill).update(technician));
+		}
+	}
+	
+	/**
+	 * Returns the least-busy technician overall, or null if there are none.
+	 */
+	public Technician choose() {
+		return all.peek();
+	}
+	
+	/**
+	 * Returns the least-busy technician with any of the given skills,
+	 * falling back to the least-busy technician overall.
+	 */
+	public Technician choose(Collection<Tag> skills) {
+		Technician result = null;
+		for (Tag skill : skills) {
+			IndexedHeap<Technician> heap = bySkill.get(skill);
+			if (heap != null && !heap.isEmpty()) {
+				Technician candidate = heap.peek();
+				if (result == null || LEAST_BUSY.compare(candidate, result) < 0) {
+					result = candidate;
+				}
+			}
+		}
+		return result != null ? result : choose();
+	}
+}
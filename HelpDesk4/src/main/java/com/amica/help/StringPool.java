@@ -0,0 +1,110 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary of strings used by a {@link HelpDesk}, so that values that 
+ * repeat across many tickets and events -- originators and system-generated 
+ * notes -- are held once. Each distinct string also gets an integer code, 
+ * which can stand in for the string in compact representations.
+ * 
+ * The pool is never cleared, so we only {@link #intern intern} values that
+ * come from a small set. Free text such as a reason for resolving a ticket
+ * is only {@link #lookup looked up}: if it's a boilerplate reason that's
+ * already pooled, such as "Requested approval from manager.", we share
+ * that instance; otherwise we keep the string as it is.
+ * 
+ * A pool can sit on top of a shared pool that holds strings common to
+ * many tenants, such as standard notes. We hand out the shared instance
+ * of any string that the shared pool already holds, without copying it
+ * into our own; the shared pool should be filled before tenants use it.
+ */
+public class StringPool {
+
+	private Map<String,Integer> codes = new HashMap<>();
+	private List<String> strings = new ArrayList<>();
+	private Map<Technician,String> assignmentNotes = new HashMap<>();
+	private StringPool shared;
+	
+	public StringPool() {
+	}
+	
+	public StringPool(StringPool shared) {
+		this.shared = shared;
+	}
+	
+	/**
+	 * Returns the code for the given string, adding it to the pool
+	 * if it's not there already.
+	 */
+	public int code(String value) {
+		Integer code = codes.get(value);
+		if (code == null) {
+			code = strings.size();
+			strings.add(value);
+			codes.put(value, code);
+		}
+		return code;
+	}
+	
+	/**
+	 * Returns the code for the given string, or -1 if it's not in the pool.
+	 */
+	public int codeIfPresent(String value) {
+		return codes.getOrDefault(value, -1);
+	}
+	
+	public String get(int code) {
+		return strings.get(code);
+	}
+	
+	/**
+	 * Returns the pooled instance that's equal to the given string,
+	 * adding the string to the pool if it's not there already.
+	 */
+	public String intern(String value) {
+		if (value != null && shared != null) {
+			int sharedCode = shared.codeIfPresent(value);
+			if (sharedCode != -1) {
+				return shared.get(sharedCode);
+			}
+		}
+		return value != null ? strings.get(code(value)) : null;
+	}
+	
+	/**
+	 * Returns the pooled instance that's equal to the given string, 
+	 * here or in the shared pool, or else the string itself; this never
+	 * adds to the pool.
+	 */
+	public String lookup(String value) {
+		if (value != null && shared != null) {
+			int sharedCode = shared.codeIfPresent(value);
+			if (sharedCode != -1) {
+				return shared.get(sharedCode);
+			}
+		}
+		int code = value != null ? codeIfPresent(value) : -1;
+		return code != -1 ? strings.get(code) : value;
+	}
+	
+	/**
+	 * Returns the note for assigning a ticket to the given technician,
+	 * building it only the first time it's needed for that technician.
+	 */
+	public String getAssignmentNote(Technician technician) {
+		String note = assignmentNotes.get(technician);
+		if (note == null) {
+			note = intern(technician.getAssignmentNote());
+			assignmentNotes.put(technician, note);
+		}
+		return note;
+	}
+	
+	public int size() {
+		return strings.size();
+	}
+}
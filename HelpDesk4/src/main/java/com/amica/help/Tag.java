@@ -1,91 +1,70 @@
 package com.amica.help;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
  * Class representing a keyword tag that can be applied to a {@link Ticket}.
+ * 
+ * Tags are created and looked up through a {@link TagRegistry}; each
+ * {@link Tenant} has its own. The static methods here work with the
+ * {@link TagRegistry#getShared shared registry}, which is what a 
+ * {@link HelpDesk} uses unless it's given a tenant of its own.
  *
  * @author Will Provost
  */
 @EqualsAndHashCode(of="value")
 public class Tag implements Comparable<Tag> {
 
-	private static SortedSet<Tag> tags = new TreeSet<>();
-	private static Map<String,String> synonyms = new HashMap<>();
-	private static Set<String> capitalizations = new HashSet<>();
-	
 	@Getter
 	private String value;
 	
-	private Tag(String value) {
+	Tag(String value) {
 		this.value = value;
 	}
 	
 	public static SortedSet<Tag> getTags() {
-		return Collections.unmodifiableSortedSet(tags);
+		return TagRegistry.getShared().getTags();
 	}
 	
 	public static Map<String,String> getSynonyms() {
-		return Collections.unmodifiableMap(synonyms);
+		return TagRegistry.getShared().getSynonyms();
+	}
+	
+	public static Map<String,String> getCanonicalForms() {
+		return TagRegistry.getShared().getCanonicalForms();
 	}
 	
 	public static void addSynonym(String term, String isSynonymFor) {
-		synonyms.put(term.toLowerCase(), isSynonymFor);
-		capitalizations.add(isSynonymFor);
+		TagRegistry.getShared().addSynonym(term, isSynonymFor);
 	}
 	
-	public static String translate(String term) {
-		if (synonyms.containsKey(term.toLowerCase())) {
-			return synonyms.get(term.toLowerCase());
-		}
-		return term;
+	public static void addSynonyms(Map<String,String> newSynonyms) {
+		TagRegistry.getShared().addSynonyms(newSynonyms);
 	}
 	
-	public static Set<String> getCapitalizations() {
-		return Collections.unmodifiableSet(capitalizations);
+	public static String translate(String term) {
+		return TagRegistry.getShared().translate(term);
 	}
 	
-	private static Optional<String> getExistingCapitalization(String value) {
-		return capitalizations.stream()
-				.filter(c -> c.equalsIgnoreCase(value))
-				.findFirst();
+	public static Set<String> getCapitalizations() {
+		return TagRegistry.getShared().getCapitalizations();
 	}
 	
 	public static String capitalize(String value) {
-		return getExistingCapitalization(value).orElse(value.toLowerCase());
+		return TagRegistry.getShared().capitalize(value);
 	}
 	
 	public static void addCapitalization(String value) {
-		Optional<String> capitalization = getExistingCapitalization(value);
-		if (capitalization.isPresent()) {
-			throw new IllegalArgumentException
-				(String.format("'%s' is already set to '%s'.",
-						value, capitalization.get()));
-		}
-
-		capitalizations.add(value);
+		TagRegistry.getShared().addCapitalization(value);
 	}
 	
 	public static Tag getTag(String value) {
-		value = translate(value);
-		for (Tag tag : tags) {
-			if (tag.getValue().equalsIgnoreCase(value)) {
-				return tag;
-			}
-		}
-		Tag newTag = new Tag(capitalize(value));
-		tags.add(newTag);
-		return newTag;
+		return TagRegistry.getShared().getTag(value);
 	}
 	
 	public int compareTo(Tag other) {
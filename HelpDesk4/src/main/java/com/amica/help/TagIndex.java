@@ -0,0 +1,189 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Case-insensitive prefix search over a {@link TagRegistry}, including
+ * synonyms, ranked by how often each tag has been used on a help desk.
+ * We keep the lower-cased tag values and synonyms in a sorted array,
+ * next to the tags they stand for, so that the matches for a prefix are
+ * a contiguous range found by two binary searches. We pick the top
+ * completions out of that range with a heap no bigger than the number
+ * asked for. The array is rebuilt when the registry has changed since
+ * the last search.
+ * 
+ * Alongside the array we keep a tree of the greatest use count in each
+ * span of positions, updated as tags are used. Once the heap is full,
+ * we skip any span whose greatest count is below that of the worst tag
+ * in the heap, so a search over a wide prefix only visits the spans that
+ * could still hold a better completion.
+ */
+public class TagIndex {
+
+	private TagRegistry registry;
+	private String[] keys = {};
+	private Tag[] targets = {};
+	private long builtForVersion = -1;
+	private Map<Tag,Integer> useCounts = new HashMap<>();
+	private Map<Tag,List<Integer>> positions = new HashMap<>();
+	private int leaves = 1;
+	private int[] maxUseCounts = new int[2];
+	
+	/**
+	 * Most-used first, and then in alphabetical order.
+	 */
+	private Comparator<Tag> ranking = 
+			Comparator.comparingInt(this::getUseCount).reversed()
+				.thenComparing(Comparator.naturalOrder());
+	
+	public TagIndex() {
+		this(TagRegistry.getShared());
+	}
+	
+	public TagIndex(TagRegistry registry) {
+		this.registry = registry;
+	}
+	
+	public void recordUse(Tag tag) {
+		int count = useCounts.merge(tag, 1, Integer::sum);
+		for (int position : positions.getOrDefault(tag, List.of())) {
+			for (int node = leaves + position; node != 0; node >>>= 1) {
+				maxUseCounts[node] = Math.max(maxUseCounts[node], count);
+			}
+		}
+	}
+	
+	public int getUseCount(Tag tag) {
+		return useCounts.getOrDefault(tag, 0);
+	}
+	
+	/**
+	 * Returns up to the given number of distinct tags whose values, 
+	 * or synonyms, start with the given prefix, ignoring case.
+	 */
+	public List<Tag> complete(String prefix, int limit) {
+		if (prefix == null || limit < 0) {
+			throw new IllegalArgumentException
+				("Prefix must be non-null and limit must be non-negative.");
+		}
+		refresh();
+		
+		String key = prefix.toLowerCase();
+		int from = lowerBound(key);
+		int to = lowerBound(key + Character.MAX_VALUE);
+		
+		PriorityQueue<Tag> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+		if (limit > 0 && from < to) {
+			search(1, 0, leaves, from, to, limit, best, new HashSet<>());
+		}
+		
+		List<Tag> result = new ArrayList<>(best);
+		result.sort(ranking);
+		return result;
+	}
+	
+	/**
+	 * Offers the tags in the part of the given range that's under the given
+	 * node of the tree, which spans positions from low up to high. We skip 
+	 * the node if nothing under it can beat the worst tag we have so far,
+	 * and otherwise visit the child with the greater count first.
+	 */
+	private void search(int node, int low, int high, int from, int to, 
+			int limit, PriorityQueue<Tag> best, Set<Tag> inBest) {
+		if (high <= from || to <= low || (best.size() == limit && 
+				maxUseCounts[node] < getUseCount(best.peek()))) {
+			return;
+		}
+		
+		if (high - low == 1) {
+			Tag candidate = targets[low];
+			if (inBest.contains(candidate)) {
+				return;
+			}
+			if (best.size() < limit) {
+				best.add(candidate);
+				inBest.add(candidate);
+			} else if (ranking.compare(candidate, best.peek()) < 0) {
+				inBest.remove(best.poll());
+				best.add(candidate);
+				inBest.add(candidate);
+			}
+		} else {
+			int middle = (low + high) >>> 1;
+			int left = 2 * node;
+			int right = left + 1;
+			if (maxUseCounts[left] >= maxUseCounts[right]) {
+				search(left, low, middle, from, to, limit, best, inBest);
+				search(right, middle, high, from, to, limit, best, inBest);
+			} else {
+				search(right, middle, high, from, to, limit, best, inBest);
+				search(left, low, middle, from, to, limit, best, inBest);
+			}
+		}
+	}
+	
+	private int lowerBound(String key) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (keys[middle].compareTo(key) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * Gathers tag values, and synonyms for tags that exist, and sorts them.
+	 */
+	private void refresh() {
+		if (builtForVersion == registry.getVersion()) {
+			return;
+		}
+		
+		Map<String,Tag> byKey = new HashMap<>();
+		for (Tag tag : registry.getTags()) {
+			byKey.put(tag.getValue().toLowerCase(), tag);
+		}
+		Map<String,Tag> synonyms = new HashMap<>();
+		for (Map.Entry<String,String> synonym : registry.getCanonicalForms().entrySet()) {
+			Tag target = byKey.get(synonym.getValue().toLowerCase());
+			if (target != null) {
+				synonyms.put(synonym.getKey(), target);
+			}
+		}
+		synonyms.forEach(byKey::putIfAbsent);
+		
+		String[] newKeys = byKey.keySet().toArray(String[]::new);
+		Arrays.sort(newKeys);
+		Tag[] newTargets = new Tag[newKeys.length];
+		for (int i = 0; i < newKeys.length; ++i) {
+			newTargets[i] = byKey.get(newKeys[i]);
+		}
+		keys = newKeys;
+		targets = newTargets;
+		
+		positions = new HashMap<>();
+		leaves = Integer.highestOneBit(Math.max(1, newKeys.length - 1)) << 1;
+		maxUseCounts = new int[2 * leaves];
+		for (int i = 0; i < newTargets.length; ++i) {
+			positions.computeIfAbsent(newTargets[i], t -> new ArrayList<>()).add(i);
+			maxUseCounts[leaves + i] = getUseCount(newTargets[i]);
+		}
+		for (int node = leaves - 1; node > 0; --node) {
+			maxUseCounts[node] = Math.max(maxUseCounts[2 * node], maxUseCounts[2 * node + 1]);
+		}
+		builtForVersion = registry.getVersion();
+	}
+}
@@ -0,0 +1,364 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The tags, synonyms, and capitalizations known to one {@link Tenant}.
+ *
+ * Synonyms can be chained: if "wifi" is a synonym for "WLAN", and "WLAN"
+ * is a synonym for "Network", then "wifi" means "Network". We keep the
+ * synonyms as they were declared, and also compile them into a map from
+ * each term straight to its canonical form, so that resolving any term
+ * takes a single lookup. Tags and capitalizations are also kept by their
+ * lower-case keys.
+ *
+ * A registry can be layered over a parent that holds a vocabulary shared
+ * by many tenants. We look in our own maps first and then in the parent's,
+ * and we create new tags only in our own; the parent should be set up
+ * before any tenants use it. Our maps are created on first use, so that
+ * a tenant that only uses the shared vocabulary costs next to nothing.
+ *
+ * Tags are looked up far more often than they're created, and usually 
+ * with the same few spellings, so we also remember the tag for each
+ * exact spelling we've been asked for. That way a repeat lookup doesn't
+ * have to build a lower-case copy of the value. Adding synonyms, here
+ * or in the parent, can change what a spelling means, so it clears those
+ * shortcuts; and we clear them when they reach {@link #MAX_SPELLINGS},
+ * so that a stream of one-off spellings can't grow them without limit.
+ */
+public class TagRegistry {
+	
+	public static final int MAX_SPELLINGS = 4096;
+	
+	/**
+	 * The canonical form of a term, and its lower-case key.
+	 */
+	private record Canonical(String value, String key) {}
+	
+	private static TagRegistry shared = new TagRegistry();
+	
+	/**
+	 * Returns the registry behind the static methods on {@link Tag}.
+	 */
+	public static TagRegistry getShared() {
+		return shared;
+	}
+	
+	private TagRegistry parent;
+	private SortedSet<Tag> tags;
+	private Map<String,Tag> tagsByKey;
+	private Map<String,String> synonyms;
+	private Map<String,Canonical> canonicalForms;
+	private Map<String,List<String>> termsByCanonicalKey;
+	private Map<String,String> capitalizations;
+	private Map<String,Tag> tagsBySpelling;
+	private long spellingsForParentSynonyms;
+	private long version;
+	private long synonymVersion;
+	
+	public TagRegistry() {
+	}
+	
+	public TagRegistry(TagRegistry parent) {
+		this.parent = parent;
+	}
+	
+	public TagRegistry getParent() {
+		return parent;
+	}
+	
+	private static <K,V> Map<K,V> orEmpty(Map<K,V> map) {
+		return map != null ? map : Collections.emptyMap();
+	}
+	
+	/**
+	 * Returns a number that changes whenever a tag or synonym is added,
+	 * here or in the parent, so that indexes know when to rebuild.
+	 */
+	public long getVersion() {
+		return parent != null ? version + parent.getVersion() : version;
+	}
+	
+	/**
+	 * Returns a number that changes whenever a synonym is added, here or
+	 * in the parent. Unlike {@link #getVersion}, it doesn't change when
+	 * a tag is created.
+	 */
+	public long getSynonymVersion() {
+		return parent != null 
+				? synonymVersion + parent.getSynonymVersion() : synonymVersion;
+	}
+	
+	/**
+	 * Returns the number of spellings we're remembering shortcuts for.
+	 */
+	int getSpellingCount() {
+		return tagsBySpelling != null ? tagsBySpelling.size() : 0;
+	}
+	
+	/**
+	 * Returns all tags, including the parent's.
+	 */
+	public SortedSet<Tag> getTags() {
+		if (parent == null) {
+			return tags != null
+					? Collections.unmodifiableSortedSet(tags)
+					: Collections.emptySortedSet();
+		}
+		SortedSet<Tag> result = new TreeSet<>(parent.getTags());
+		if (tags != null) {
+			result.addAll(tags);
+		}
+		return Collections.unmodifiableSortedSet(result);
+	}
+	
+	/**
+	 * Returns the synonyms as declared: each term maps to the term
+	 * it was declared to be a synonym for.
+	 */
+	public Map<String,String> getSynonyms() {
+		if (parent == null) {
+			return Collections.unmodifiableMap(orEmpty(synonyms));
+		}
+		Map<String,String> result = new HashMap<>(parent.getSynonyms());
+		result.putAll(orEmpty(synonyms));
+		return Collections.unmodifiableMap(result);
+	}
+	
+	/**
+	 * Returns a map from each synonym, in lower case, to its canonical
+	 * form, after following any chain of synonyms.
+	 */
+	public Map<String,String> getCanonicalForms() {
+		Map<String,String> result = parent != null
+				? new HashMap<>(parent.getCanonicalForms()) : new HashMap<>();
+		orEmpty(canonicalForms).forEach((term, canonical) ->
+			result.put(term, parent != null
+					? parent.translate(canonical.value()) : canonical.value()));
+		return result;
+	}
+	
+	/**
+	 * Adds one synonym. If the term is new, we update the compiled forms
+	 * in place: the term, and any terms that currently resolve to it, now
+	 * resolve to whatever the given target resolves to. If the term is
+	 * being redefined, we recompile everything. A term that differs from
+	 * its target only in case just sets the capitalization.
+	 */
+	public void addSynonym(String term, String isSynonymFor) {
+		String key = term.toLowerCase();
+		if (key.equals(isSynonymFor.toLowerCase())) {
+			capitalizationsForUpdate().putIfAbsent(key, isSynonymFor);
+			return;
+		}
+	
+		if (synonyms != null && synonyms.containsKey(key)) {
+			Map<String,String> newSynonyms = new HashMap<>(synonyms);
+			newSynonyms.put(key, isSynonymFor);
+			compile(newSynonyms);
+		} else {
+			Canonical canonical = resolve(isSynonymFor.toLowerCase(), isSynonymFor);
+			if (canonical.key().equals(key)) {
+				throw new IllegalArgumentException(String.format
+					("Making '%s' a synonym for '%s' would create a cycle.",
+							term, isSynonymFor));
+			}
+	
+			if (synonyms == null) {
+				synonyms = new HashMap<>();
+				canonicalForms = new HashMap<>();
+				termsByCanonicalKey = new HashMap<>();
+			}
+			synonyms.put(key, isSynonymFor);
+			List<String> terms = termsByCanonicalKey.computeIfAbsent
+					(canonical.key(), k -> new ArrayList<>());
+			canonicalForms.put(key, canonical);
+			terms.add(key);
+			List<String> redirected = termsByCanonicalKey.remove(key);
+			if (redirected != null) {
+				for (String redirectedTerm : redirected) {
+					canonicalForms.put(redirectedTerm, canonical);
+				}
+				terms.addAll(redirected);
+			}
+		}
+		capitalizationsForUpdate().putIfAbsent(isSynonymFor.toLowerCase(), isSynonymFor);
+		tagsBySpelling = null;
+		++version;
+		++synonymVersion;
+	}
+	
+	/**
+	 * Adds many synonyms at once, compiling them in a single pass.
+	 * If the new synonyms would create a cycle, none of them are added.
+	 */
+	public void addSynonyms(Map<String,String> newSynonyms) {
+		Map<String,String> combined = new HashMap<>(orEmpty(synonyms));
+		newSynonyms.forEach((term, target) -> {
+			if (!term.equalsIgnoreCase(target)) {
+				combined.put(term.toLowerCase(), target);
+			}
+		});
+		compile(combined);
+		newSynonyms.values().forEach(target ->
+			capitalizationsForUpdate().putIfAbsent(target.toLowerCase(), target));
+		tagsBySpelling = null;
+		++version;
+		++synonymVersion;
+	}
+	
+	private Canonical resolve(String key, String value) {
+		Canonical canonical = canonicalForms != null ? canonicalForms.get(key) : null;
+		return canonical != null ? canonical : new Canonical(value, key);
+	}
+	
+	/**
+	 * Follows every chain of synonyms to its end, remembering the results
+	 * so that each term is visited only once. Throws if any chain loops
+	 * back on itself, and in that case leaves the current state alone.
+	 */
+	private void compile(Map<String,String> newSynonyms) {
+		Map<String,Canonical> newForms = new HashMap<>();
+		for (String start : newSynonyms.keySet()) {
+			List<String> path = new ArrayList<>();
+			Set<String> onPath = new HashSet<>();
+			String key = start;
+			String value = start;
+			Canonical canonical = null;
+			while (canonical == null) {
+				if (newForms.containsKey(key)) {
+					canonical = newForms.get(key);
+				} else if (!newSynonyms.containsKey(key)) {
+					canonical = new Canonical(value, key);
+				} else if (!onPath.add(key)) {
+					throw new IllegalArgumentException
+						("Synonyms would create a cycle through: " + path);
+				} else {
+					path.add(key);
+					value = newSynonyms.get(key);
+					key = value.toLowerCase();
+				}
+			}
+			for (String term : path) {
+				newForms.put(term, canonical);
+			}
+		}
+	
+		Map<String,List<String>> newTerms = new HashMap<>();
+		newForms.forEach((term, canonical) -> newTerms.computeIfAbsent
+				(canonical.key(), k -> new ArrayList<>()).add(term));
+		synonyms = newSynonyms;
+		canonicalForms = newForms;
+		termsByCanonicalKey = newTerms;
+	}
+	
+	/**
+	 * Returns the lower-case key of the canonical form of the given key,
+	 * after our own synonyms and then the parent's.
+	 */
+	private String canonicalKey(String key) {
+		Canonical canonical = canonicalForms != null ? canonicalForms.get(key) : null;
+		if (canonical != null) {
+			key = canonical.key();
+		}
+		return parent != null ? parent.canonicalKey(key) : key;
+	}
+	
+	/**
+	 * Returns the canonical form of the given term, if it's a synonym,
+	 * or else the term itself.
+	 */
+	public String translate(String term) {
+		Canonical canonical = canonicalForms != null
+				? canonicalForms.get(term.toLowerCase()) : null;
+		String result = canonical != null ? canonical.value() : term;
+		return parent != null ? parent.translate(result) : result;
+	}
+	
+	private Map<String,String> capitalizationsForUpdate() {
+		if (capitalizations == null) {
+			capitalizations = new HashMap<>();
+		}
+		return capitalizations;
+	}
+	
+	private String getCapitalization(String key) {
+		String result = capitalizations != null ? capitalizations.get(key) : null;
+		return result == null && parent != null ? parent.getCapitalization(key) : result;
+	}
+	
+	public Set<String> getCapitalizations() {
+		Set<String> result = parent != null
+				? new HashSet<>(parent.getCapitalizations()) : new HashSet<>();
+		result.addAll(orEmpty(capitalizations).values());
+		return Collections.unmodifiableSet(result);
+	}
+	
+	public String capitalize(String value) {
+		String key = value.toLowerCase();
+		String capitalization = getCapitalization(key);
+		return capitalization != null ? capitalization : key;
+	}
+	
+	public void addCapitalization(String value) {
+		String existing = getCapitalization(value.toLowerCase());
+		if (existing != null) {
+			throw new IllegalArgumentException
+				(String.format("'%s' is already set to '%s'.", value, existing));
+		}
+	
+		capitalizationsForUpdate().put(value.toLowerCase(), value);
+	}
+	
+	private Tag getTagIfPresent(String key) {
+		Tag tag = tagsByKey != null ? tagsByKey.get(key) : null;
+		return tag == null && parent != null ? parent.getTagIfPresent(key) : tag;
+	}
+	
+	/**
+	 * Finds the tag for the given value, ignoring case, after translating
+	 * any synonym; or creates it if this is the first time it's been used.
+	 */
+	public Tag getTag(String value) {
+		if (tagsBySpelling != null && parent != null &&
+				parent.getSynonymVersion() != spellingsForParentSynonyms) {
+			tagsBySpelling = null;
+		}
+		Tag known = tagsBySpelling != null ? tagsBySpelling.get(value) : null;
+		if (known != null) {
+			return known;
+		}
+		
+		HelpDeskEvents.TagMiss event = new HelpDeskEvents.TagMiss();
+		event.begin();
+		String key = canonicalKey(value.toLowerCase());
+		Tag tag = getTagIfPresent(key);
+		boolean created = tag == null;
+		if (created) {
+			String capitalization = getCapitalization(key);
+			tag = new Tag(capitalization != null ? capitalization : key);
+			if (tags == null) {
+				tags = new TreeSet<>();
+				tagsByKey = new HashMap<>();
+			}
+			tags.add(tag);
+			tagsByKey.put(key, tag);
+			++version;
+		}
+		if (tagsBySpelling == null || tagsBySpelling.size() >= MAX_SPELLINGS) {
+			tagsBySpelling = new HashMap<>();
+			spellingsForParentSynonyms = parent != null ? parent.getSynonymVersion() : 0;
+		}
+		tagsBySpelling.put(value, tag);
+		event.commit(value, tag, created);
+		return tag;
+	}
+}
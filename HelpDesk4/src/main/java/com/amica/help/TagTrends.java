@@ -0,0 +1,209 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks which tags are being applied most often, overall and within 
+ * recent time windows, in bounded memory. Each summary is a space-saving
+ * sketch: it counts at most a fixed number of tags, and when a new tag 
+ * arrives and the sketch is full, it takes over the counter of the 
+ * least-counted tag. Counts may then be overestimated, by no more than
+ * the count that was taken over, but any tag that's truly frequent
+ * is sure to be counted.
+ * 
+ * Recent activity is kept in a ring of buckets of a fixed time width,
+ * each with its own sketch. A tag is "trending" when its count in the
+ * current bucket is well above its average across the earlier buckets.
+ */
+public class TagTrends {
+
+	public static final int DEFAULT_CAPACITY = 64;
+	public static final long DEFAULT_BUCKET_WIDTH = 60 * 60 * 1000;
+	public static final int DEFAULT_BUCKETS = 24;
+	
+	/**
+	 * A tag and its estimated count.
+	 */
+	public record TagCount(Tag tag, long count) {}
+	
+	private static class Counter {
+		private Tag tag;
+		private long count;
+	}
+	
+	/**
+	 * Space-saving sketch with a heap of counters, so we can find the
+	 * least-counted tag in O(1) and re-order in O(log capacity).
+	 */
+	private static class Summary {
+		private int capacity;
+		private Map<Tag,Counter> counters = new HashMap<>();
+		private IndexedHeap<Counter> byCount = 
+				new IndexedHeap<>(Comparator.comparingLong(c -> c.count));
+		
+		public Summary(int capacity) {
+			this.capacity = capacity;
+		}
+		
+		public void add(Tag tag) {
+			Counter counter = counters.get(tag);
+			if (counter == null) {
+				if (counters.size() < capacity) {
+					counter = new Counter();
+					counter.tag = tag;
+					counters.put(tag, counter);
+					byCount.add(counter);
+				} else {
+					counter = byCount.peek();
+					counters.remove(counter.tag);
+					counter.tag = tag;
+					counters.put(tag, counter);
+				}
+			}
+			++counter.count;
+			byCount.update(counter);
+		}
+		
+		public long count(Tag tag) {
+			Counter counter = counters.get(tag);
+			return counter != null ? counter.count : 0;
+		}
+		
+		public void addTo(Map<Tag,Long> totals) {
+			for (Counter counter : counters.values()) {
+				totals.merge(counter.tag, counter.count, Long::sum);
+			}
+		}
+		
+		public void clear() {
+			counters.clear();
+			byCount = new IndexedHeap<>(Comparator.comparingLong(c -> c.count));
+		}
+	}
+	
+	private int capacity;
+	private long bucketWidth;
+	private Summary overall;
+	private Summary[] buckets;
+	private long[] bucketNumbers;
+	
+	public TagTrends() {
+		this(DEFAULT_CAPACITY, DEFAULT_BUCKET_WIDTH, DEFAULT_BUCKETS);
+	}
+	
+	/**
+	 * Creates the trends with only the overall summary; the summary for
+	 * each bucket is created the first time a tag is recorded in it.
+	 */
+	public TagTrends(int capacity, long bucketWidth, int bucketCount) {
+		this.capacity = capacity;
+		this.bucketWidth = bucketWidth;
+		overall = new Summary(capacity);
+		buckets = new Summary[bucketCount];
+		bucketNumbers = new long[bucketCount];
+		Arrays.fill(bucketNumbers, Long.MIN_VALUE);
+	}
+	
+	private int slotOf(long bucketNumber) {
+		return Math.floorMod(bucketNumber, buckets.length);
+	}
+	
+	/**
+	 * Records one use of the tag at the given time. Uses older than our
+	 * oldest bucket count only toward the overall figures.
+	 */
+	public void record(Tag tag, long time) {
+		overall.add(tag);
+		
+		long bucketNumber = Math.floorDiv(time, bucketWidth);
+		int slot = slotOf(bucketNumber);
+		if (bucketNumbers[slot] < bucketNumber) {
+			if (buckets[slot] != null) {
+				buckets[slot].clear();
+			} else {
+				buckets[slot] = new Summary(capacity);
+			}
+			bucketNumbers[slot] = bucketNumber;
+		}
+		if (bucketNumbers[slot] == bucketNumber) {
+			buckets[slot].add(tag);
+		}
+	}
+	
+	private static List<TagCount> top(Map<Tag,Long> totals, int k) {
+		return totals.entrySet().stream()
+				.map(entry -> new TagCount(entry.getKey(), entry.getValue()))
+				.sorted(Comparator.comparingLong(TagCount::count).reversed()
+						.thenComparing(TagCount::tag))
+				.limit(k)
+				.toList();
+	}
+	
+	/**
+	 * Returns the K most-used tags of all time, most-used first.
+	 */
+	public List<TagCount> getTopTags(int k) {
+		Map<Tag,Long> totals = new HashMap<>();
+		overall.addTo(totals);
+		return top(totals, k);
+	}
+	
+	/**
+	 * Returns the estimated counts for all tags in the given number of buckets
+	 * ending with the one that holds the given time.
+	 */
+	private Map<Tag,Long> totals(long now, int bucketCount) {
+		Map<Tag,Long> totals = new HashMap<>();
+		long latest = Math.floorDiv(now, bucketWidth);
+		for (long bucketNumber = latest - Math.min(bucketCount, buckets.length) + 1; 
+				bucketNumber <= latest; ++bucketNumber) {
+			int slot = slotOf(bucketNumber);
+			if (bucketNumbers[slot] == bucketNumber) {
+				buckets[slot].addTo(totals);
+			}
+		}
+		return totals;
+	}
+	
+	/**
+	 * Returns the K most-used tags within the given number of buckets,
+	 * ending with the bucket that holds the given time.
+	 */
+	public List<TagCount> getTopTags(int k, long now, int bucketCount) {
+		return top(totals(now, bucketCount), k);
+	}
+	
+	/**
+	 * Returns up to K tags whose count in the bucket that holds the given time
+	 * is at least the given factor times their average count per bucket
+	 * over the earlier buckets, with the sharpest rises first. 
+	 * Counts are smoothed by one, so that a tag that's new in this bucket
+	 * has to show up at least (factor - 1) times to count as trending.
+	 */
+	public List<TagCount> getTrendingTags(int k, long now, double factor) {
+		Map<Tag,Long> current = totals(now, 1);
+		Map<Tag,Long> earlier = totals(now - bucketWidth, buckets.length - 1);
+		int earlierBuckets = buckets.length - 1;
+		
+		List<TagCount> result = new ArrayList<>();
+		Map<Tag,Double> ratios = new HashMap<>();
+		for (Map.Entry<Tag,Long> entry : current.entrySet()) {
+			double baseline = earlierBuckets != 0 
+					? (double) earlier.getOrDefault(entry.getKey(), 0L) / earlierBuckets
+					: 0;
+			double ratio = (entry.getValue() + 1) / (baseline + 1);
+			if (ratio >= factor) {
+				result.add(new TagCount(entry.getKey(), entry.getValue()));
+				ratios.put(entry.getKey(), ratio);
+			}
+		}
+		result.sort(Comparator.comparingDouble((TagCount tc) -> ratios.get(tc.tag()))
+				.reversed().thenComparing(TagCount::tag));
+		return result.size() > k ? result.subList(0, k) : result;
+	}
+}
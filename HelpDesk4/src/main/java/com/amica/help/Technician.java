@@ -1,9 +1,17 @@
 package com.amica.help;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Stream;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
@@ -16,10 +24,23 @@ import lombok.Getter;
 @EqualsAndHashCode(of="ID")
 public class Technician implements Comparable<Technician> {
 
+	public static final Comparator<Ticket> NEXT_TO_WORK =
+			Comparator.comparingLong(Ticket::getAgingKey)
+				.thenComparingInt(Ticket::getID);
+	
+
 	private String ID;
 	private String name;
 	private int extension;
-	private SortedSet<Ticket> activeTickets = new TreeSet<>(); 
+	private int ordinal = -1;
+	private NavigableSet<Ticket> activeTickets = new TreeSet<>(); 
+	@Getter(AccessLevel.NONE)
+	private IndexedHeap<Ticket> workQueue = new IndexedHeap<>(NEXT_TO_WORK);
+	private SortedSet<Tag> skills = new TreeSet<>();
+	@Getter(AccessLevel.NONE)
+	private SkillRouter router;
+	@Getter(AccessLevel.NONE)
+	private String assignmentNote;
 	
 	public Technician(String ID, String name, int extension) {
 		this.ID = ID;
@@ -27,13 +48,61 @@ public class Technician implements Comparable<Technician> {
 		this.extension = extension;
 	}
 	
+	/**
+	 * A help desk numbers its technicians from zero, in the order they're
+	 * added, so that it can keep per-technician counts in arrays.
+	 */
+	void setOrdinal(int ordinal) {
+		this.ordinal = ordinal;
+	}
+	
+	/**
+	 * A help desk that routes tickets by skill registers its router here,
+	 * so that we can tell it when our load or our skills change.
+	 */
+	void setRouter(SkillRouter router) {
+		this.router = router;
+	}
+	
+	/**
+	 * Returns the note for assigning a ticket to this technician,
+	 * building it only the first time it's needed.
+	 */
+	final String getAssignmentNote() {
+		if (assignmentNote == null) {
+			assignmentNote = "Assigned to " + this + ".";
+		}
+		return assignmentNote;
+	}
+	
 	public Stream<Ticket> getActiveTickets() {
 		return activeTickets.stream();
 	}
 	
+	public int getActiveTicketCount() {
+		return activeTickets.size();
+	}
+	
+	public Set<Tag> getSkills() {
+		return Collections.unmodifiableSet(skills);
+	}
+	
+	public void addSkill(Tag skill) {
+		if (skill != null) {
+			if (skills.add(skill) && router != null) {
+				router.skillAdded(this, skill);
+			}
+		} else {
+			throw new IllegalArgumentException("Skill must be non-null.");
+		}
+	}
+	
 	public void addActiveTicket(Ticket ticket) {
 		if (ticket.getStatus() != Ticket.Status.RESOLVED) {
-			activeTickets.add(ticket);
+			if (activeTickets.add(ticket) && router != null) {
+				router.loadChanged(this);
+			}
+			updateWorkQueue(ticket);
 		} else {
 			throw new IllegalArgumentException("Can't add a resolved ticket.");
 		}
@@ -41,12 +110,110 @@ public class Technician implements Comparable<Technician> {
 	
 	public void removeActiveTicket(Ticket ticket) {
 		if (ticket.getStatus() == Ticket.Status.RESOLVED) {
-			activeTickets.remove(ticket);
+			if (activeTickets.remove(ticket) && router != null) {
+				router.loadChanged(this);
+			}
+			workQueue.remove(ticket);
 		} else {
 			throw new IllegalArgumentException("Can't remove an unresolved ticket.");
 		}
 	}
 	
+	/**
+	 * Adds a batch of tickets that are being moved to this technician,
+	 * letting the router know about our new load just once.
+	 */
+	void addActiveTickets(Collection<Ticket> tickets) {
+		for (Ticket ticket : tickets) {
+			activeTickets.add(ticket);
+			updateWorkQueue(ticket);
+		}
+		if (router != null) {
+			router.loadChanged(this);
+		}
+	}
+	
+	/**
+	 * Takes a ticket out of our sorted structures while its sort key changes,
+	 * returning true if it was one of our active tickets. The ticket should
+	 * be {@link #attach attached} again once the change is made.
+	 */
+	boolean detach(Ticket ticket) {
+		workQueue.remove(ticket);
+		return activeTickets.remove(ticket);
+	}
+	
+	/**
+	 * Puts back a ticket that was {@link #detach detached}; our count
+	 * of active tickets is the same as before, so the router needn't know.
+	 */
+	void attach(Ticket ticket) {
+		activeTickets.add(ticket);
+		updateWorkQueue(ticket);
+	}
+	
+	/**
+	 * Drops an open ticket that has been moved to another technician.
+	 */
+	void releaseTicket(Ticket ticket) {
+		if (activeTickets.remove(ticket) && router != null) {
+			router.loadChanged(this);
+		}
+		workQueue.remove(ticket);
+	}
+	
+	/**
+	 * Drops and returns all of our active tickets, in one step.
+	 */
+	List<Ticket> releaseActiveTickets() {
+		List<Ticket> result = new ArrayList<>(activeTickets);
+		activeTickets.clear();
+		workQueue = new IndexedHeap<>(NEXT_TO_WORK);
+		if (router != null) {
+			router.loadChanged(this);
+		}
+		return result;
+	}
+	
+	/**
+	 * Drops and returns up to the given number of active tickets, taking
+	 * those that sort last -- lowest in priority and then most recent.
+	 */
+	List<Ticket> releaseActiveTickets(int count) {
+		List<Ticket> result = new ArrayList<>();
+		while (result.size() < count && !activeTickets.isEmpty()) {
+			Ticket ticket = activeTickets.pollLast();
+			workQueue.remove(ticket);
+			result.add(ticket);
+		}
+		if (router != null) {
+			router.loadChanged(this);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the ticket this technician should work on next: the
+	 * assigned (not waiting) ticket with the highest priority after aging,
+	 * and among those the oldest; or null if there's nothing to work on.
+	 */
+	public Ticket getNextTicket() {
+		return workQueue.peek();
+	}
+	
+	/**
+	 * Tickets call this when they go into or come out of the WAITING state,
+	 * so that we only offer tickets that can be worked on now.
+	 */
+	void updateWorkQueue(Ticket ticket) {
+		if (ticket.getStatus() == Ticket.Status.ASSIGNED && 
+				activeTickets.contains(ticket)) {
+			workQueue.add(ticket);
+		} else {
+			workQueue.remove(ticket);
+		}
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("Technician %s, %s", ID, name);
@@ -0,0 +1,54 @@
+package com.amica.help;
+
+import lombok.Getter;
+
+/**
+ * The context that one {@link HelpDesk} runs in: its time source, its
+ * {@link TagRegistry tags}, and its {@link StringPool pooled strings}.
+ * Many tenants can share one JVM, each layering its own tags and strings 
+ * over a common vocabulary, so that a small desk costs little more than 
+ * its own tickets.
+ */
+@Getter
+public class Tenant {
+
+	/**
+	 * Backs stand-alone tickets and the default help desk: the shared 
+	 * clock, the shared tag registry, and no string pool.
+	 */
+	private static final Tenant shared = new Tenant
+			("shared", Clock.getShared(), TagRegistry.getShared(), null);
+	
+	public static Tenant getShared() {
+		return shared;
+	}
+	
+	private String name;
+	private TimeSource clock;
+	private TagRegistry tags;
+	private StringPool strings;
+	
+	/**
+	 * Creates a tenant from its parts; the string pool may be null.
+	 */
+	public Tenant(String name, TimeSource clock, TagRegistry tags, StringPool strings) {
+		if (name != null && clock != null && tags != null) {
+			this.name = name;
+			this.clock = clock;
+			this.tags = tags;
+			this.strings = strings;
+		} else {
+			throw new IllegalArgumentException
+				("Name, clock, and tag registry must be non-null.");
+		}
+	}
+	
+	/**
+	 * Creates a tenant with its own clock, whose tags and strings are
+	 * layered over those of the given tenant.
+	 */
+	public static Tenant over(Tenant common, String name, TimeSource clock) {
+		return new Tenant(name, clock, new TagRegistry(common.getTags()), 
+				new StringPool(common.getStrings()));
+	}
+}
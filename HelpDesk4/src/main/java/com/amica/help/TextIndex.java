@@ -0,0 +1,266 @@
+package com.amica.help;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * An inverted index over the text of tickets -- descriptions and event 
+ * notes -- for ranked search. Each ticket is one document. We keep, for
+ * each term, the IDs of the tickets that use it, in ID order, with the
+ * number of times each uses it; and for each ticket, its length in terms.
+ * Everything is updated as text is added, so statistics are always current.
+ * 
+ * Scores are BM25, multiplied by a boost that the caller supplies, such as 
+ * for priority and recency. We only look at tickets that contain at least 
+ * one of the query terms, merging their postings lists in ID order, and 
+ * keep the best k in a bounded heap. Since the caller tells us the largest 
+ * possible boost, we can skip computing the boost for any ticket whose
+ * text score couldn't get it into the heap.
+ * 
+ * We also prune with MaxScore: each term has an upper bound on what it can
+ * add to a score, from the highest count in its postings. Once the heap is
+ * full, the terms whose bounds together can't beat the worst hit in it are
+ * "non-essential": we only take candidates from the other terms' postings,
+ * and look a candidate up in the non-essential lists, by binary search, 
+ * only for as long as it could still make the heap.
+ */
+public class TextIndex {
+
+	public static final double K1 = 1.2;
+	public static final double B = 0.75;
+	
+	/**
+	 * A ticket ID and its score for a query.
+	 */
+	public record Hit(int ID, double score) {}
+	
+	private static final Comparator<Hit> WORST_FIRST = 
+			Comparator.comparingDouble(Hit::score)
+				.thenComparing(Comparator.comparingInt(Hit::ID).reversed());
+	
+	/**
+	 * Ticket IDs in ascending order, each with a term frequency.
+	 */
+	private static class Postings {
+		private int[] IDs = new int[2];
+		private int[] counts = new int[2];
+		private int size;
+		private int maxCount;
+		
+		/**
+		 * Usually the ticket is the newest one, or the last one we added to,
+		 * so we check the end first; otherwise we search, and insert if needed.
+		 */
+		public void add(int ID, int count) {
+			int index = size != 0 && IDs[size - 1] == ID 
+					? size - 1 : Arrays.binarySearch(IDs, 0, size, ID);
+			if (index >= 0) {
+				counts[index] += count;
+			} else {
+				index = -index - 1;
+				if (size == IDs.length) {
+					IDs = Arrays.copyOf(IDs, size * 2);
+					counts = Arrays.copyOf(counts, size * 2);
+				}
+				System.arraycopy(IDs, index, IDs, index + 1, size - index);
+				System.arraycopy(counts, index, counts, index + 1, size - index);
+				IDs[index] = ID;
+				counts[index] = count;
+				++size;
+			}
+			maxCount = Math.max(maxCount, counts[index]);
+		}
+		
+		/**
+		 * Returns the position of the first ID at or after the given one,
+		 * starting the search at the given position.
+		 */
+		public int seek(int from, int ID) {
+			int index = Arrays.binarySearch(IDs, from, size, ID);
+			return index >= 0 ? index : -index - 1;
+		}
+	}
+	
+	private Map<String,Postings> postings = new HashMap<>();
+	private int[] lengths = new int[16];
+	private int documents;
+	private long totalLength;
+	
+	/**
+	 * Splits text into lower-case runs of letters and digits.
+	 */
+	static List<String> tokenize(String text) {
+		List<String> result = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); ++i) {
+			boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (inWord && start == -1) {
+				start = i;
+			} else if (!inWord && start != -1) {
+				result.add(text.substring(start, i).toLowerCase());
+				start = -1;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Adds text to the given ticket's document.
+	 */
+	public void add(int ID, String text) {
+		List<String> tokens = tokenize(text);
+		if (ID >= lengths.length) {
+			lengths = Arrays.copyOf(lengths, Math.max(ID + 1, lengths.length * 2));
+		}
+		if (lengths[ID] == 0 && !tokens.isEmpty()) {
+			++documents;
+		}
+		lengths[ID] += tokens.size();
+		totalLength += tokens.size();
+		
+		Map<String,Integer> counts = new HashMap<>();
+		for (String token : tokens) {
+			counts.merge(token, 1, Integer::sum);
+		}
+		counts.forEach((term, count) -> 
+			postings.computeIfAbsent(term, t -> new Postings()).add(ID, count));
+	}
+	
+	/**
+	 * Returns the number of tickets that use the given term.
+	 */
+	public int getDocumentFrequency(String term) {
+		Postings list = postings.get(term.toLowerCase());
+		return list != null ? list.size : 0;
+	}
+	
+	public List<Hit> search(String query, int k) {
+		return search(query, k, ID -> 1.0, 1.0);
+	}
+	
+	/**
+	 * Returns the top k tickets for the query, best first. The boost
+	 * for each ticket must be no more than the given maximum.
+	 */
+	public List<Hit> search(String query, int k, IntToDoubleFunction boost, double maxBoost) {
+		if (k < 0) {
+			throw new IllegalArgumentException("Can't return a negative number of results.");
+		}
+		
+		Set<String> terms = new LinkedHashSet<>(tokenize(query));
+		List<Postings> found = new ArrayList<>();
+		for (String term : terms) {
+			Postings list = postings.get(term);
+			if (list != null) {
+				found.add(list);
+			}
+		}
+		
+		if (found.isEmpty() || k == 0) {
+			return new ArrayList<>();
+		}
+		
+		// Lists in order of their upper bounds, smallest first, so that the 
+		// non-essential ones are always a prefix:
+		int size = found.size();
+		double[] bounds = new double[size];
+		double[] weights = new double[size];
+		Postings[] lists = new Postings[size];
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; ++i) {
+			Postings list = found.get(i);
+			weights[i] = Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5));
+			bounds[i] = weights[i] * list.maxCount * (K1 + 1) / 
+					(list.maxCount + K1 * (1 - B));
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(i -> bounds[i]));
+		double[] sortedWeights = new double[size];
+		double[] boundsBelow = new double[size + 1];
+		for (int i = 0; i < size; ++i) {
+			lists[i] = found.get(order[i]);
+			sortedWeights[i] = weights[order[i]];
+			boundsBelow[i + 1] = boundsBelow[i] + bounds[order[i]];
+		}
+		
+		PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, WORST_FIRST);
+		double averageLength = (double) totalLength / documents;
+		int[] cursors = new int[size];
+		double[] parts = new double[size];
+		int firstEssential = 0;
+		while (firstEssential < size) {
+			int ID = Integer.MAX_VALUE;
+			for (int i = firstEssential; i < size; ++i) {
+				if (cursors[i] < lists[i].size) {
+					ID = Math.min(ID, lists[i].IDs[cursors[i]]);
+				}
+			}
+			if (ID == Integer.MAX_VALUE) {
+				break;
+			}
+			
+			double norm = K1 * (1 - B + B * lengths[ID] / averageLength);
+			double partial = 0;
+			for (int i = firstEssential; i < size; ++i) {
+				Postings list = lists[i];
+				parts[i] = 0;
+				if (cursors[i] < list.size && list.IDs[cursors[i]] == ID) {
+					int count = list.counts[cursors[i]++];
+					parts[i] = sortedWeights[i] * count * (K1 + 1) / (count + norm);
+					partial += parts[i];
+				}
+			}
+			
+			boolean possible = true;
+			for (int i = firstEssential - 1; i >= 0 && possible; --i) {
+				if ((partial + boundsBelow[i + 1]) * maxBoost <= best.peek().score()) {
+					possible = false;
+				} else {
+					Postings list = lists[i];
+					parts[i] = 0;
+					cursors[i] = list.seek(cursors[i], ID);
+					if (cursors[i] < list.size && list.IDs[cursors[i]] == ID) {
+						int count = list.counts[cursors[i]];
+						parts[i] = sortedWeights[i] * count * (K1 + 1) / (count + norm);
+						partial += parts[i];
+					}
+				}
+			}
+			if (!possible) {
+				continue;
+			}
+			
+			// Add up in a fixed order, so equal tickets get equal scores:
+			double score = 0;
+			for (int i = 0; i < size; ++i) {
+				score += parts[i];
+			}
+			if (best.size() < k || score * maxBoost > best.peek().score()) {
+				Hit hit = new Hit(ID, score * boost.applyAsDouble(ID));
+				best.add(hit);
+				if (best.size() > k) {
+					best.poll();
+				}
+				if (best.size() == k) {
+					double threshold = best.peek().score();
+					while (firstEssential < size && 
+							boundsBelow[firstEssential + 1] * maxBoost <= threshold) {
+						++firstEssential;
+					}
+				}
+			}
+		}
+		
+		List<Hit> result = new ArrayList<>(best);
+		result.sort(WORST_FIRST.reversed());
+		return result;
+	}
+}
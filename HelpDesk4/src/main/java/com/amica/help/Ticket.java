@@ -1,13 +1,14 @@
 package com.amica.help;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Stream;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
@@ -22,6 +23,12 @@ public class Ticket implements Comparable<Ticket> {
 
     public enum Status { CREATED, ASSIGNED, WAITING, RESOLVED }
     public enum Priority { LOW, MEDIUM, HIGH, URGENT }
+    
+    /**
+     * For purposes of choosing what to work on next, a ticket's priority
+     * rises one level for each interval of this length since it was created.
+     */
+    public static final long AGING_INTERVAL = 24 * 60 * 60 * 1000;
 
     private int ID;
     private Status status;
@@ -31,15 +38,32 @@ public class Ticket implements Comparable<Ticket> {
     private Technician technician;
     private List<Event> history = new ArrayList<>();
     private SortedSet<Tag> tags = new TreeSet<>();
+    @Getter(AccessLevel.NONE)
+    private Tenant tenant;
+    @Getter(AccessLevel.NONE)
+    private TicketListener listener;
 
 	public Ticket(int ID, String originator, String description, Priority priority) {
+		this(ID, originator, description, priority, null, null);
+	}
+	
+	/**
+	 * Creates a ticket that belongs to a help desk, taking its timestamps,
+	 * tags, and pooled strings from the desk's tenant. If the tenant is null,
+	 * we use the {@link Tenant#getShared shared tenant}.
+	 */
+	public Ticket(int ID, String originator, String description, Priority priority, 
+			Tenant tenant, TicketListener listener) {
 		if (originator != null && description != null && priority != null) {
 			this.ID = ID;
 			this.status= Status.CREATED;
 			this.priority = priority;
-			this.originator = originator;
+			this.tenant = tenant != null ? tenant : Tenant.getShared();
+			this.listener = listener;
+			this.originator = intern(originator);
 			this.description = description;
-			this.history.add(new Event(ID, status, "Created ticket."));
+			addEvent(status, "Created ticket.");
+			changed(null, null, null);
 		} else {
 			throw new IllegalArgumentException(String.format
 			("All arguments must be non-null: originator=%s, description=%s, priority=%s.",
@@ -48,6 +72,84 @@ public class Ticket implements Comparable<Ticket> {
 		}
 	}
 
+    /**
+     * Restores a ticket with the given state, history, and tags, as when
+     * importing historical tickets. No events are created and the listener 
+     * isn't notified: the help desk indexes restored tickets itself.
+     */
+    Ticket(int ID, String originator, String description, Priority priority,
+    		Status status, Technician technician, List<Event> history, 
+    		Collection<Tag> tags, Tenant tenant, TicketListener listener) {
+    	if (originator != null && description != null && priority != null &&
+    			status != null && history != null && !history.isEmpty() &&
+    			(technician != null || status == Status.CREATED)) {
+			this.ID = ID;
+			this.status= status;
+			this.priority = priority;
+			this.tenant = tenant != null ? tenant : Tenant.getShared();
+			this.listener = listener;
+			this.originator = intern(originator);
+			this.description = description;
+			this.technician = technician;
+			this.history.addAll(history);
+			this.tags.addAll(tags);
+    	} else {
+    		throw new IllegalArgumentException(String.format
+				("Can't restore ticket %d: it needs an originator, description, " +
+				"priority, status, and history, and a technician unless it's CREATED.", ID));
+    	}
+    }
+    
+    /**
+     * Creates a search key that sorts with the given priority and ID,
+     * for use in resuming a paged query. The key has no history.
+     */
+    private Ticket(Priority priority, int ID) {
+    	this.ID = ID;
+    	this.priority = priority;
+    }
+    
+    static Ticket key(Priority priority, int ID) {
+    	return new Ticket(priority, ID);
+    }
+    
+    private String intern(String value) {
+    	StringPool strings = tenant.getStrings();
+    	return strings != null ? strings.intern(value) : value;
+    }
+    
+    /**
+     * Reasons are free text, so we share an instance only if it's pooled
+     * already, rather than pooling every reason we're given.
+     */
+    private String lookup(String value) {
+    	StringPool strings = tenant.getStrings();
+    	return strings != null ? strings.lookup(value) : value;
+    }
+    
+    /**
+     * Adds an event to this ticket's own history, and lets our listener know.
+     */
+    private void addEvent(Status newStatus, String note) {
+    	Event event = new Event(ID, tenant.getClock().getTime(), newStatus, note);
+    	history.add(event);
+    	if (listener != null) {
+    		listener.eventAdded(this, event);
+    	}
+    }
+    
+    /**
+     * Lets our listener know that the technician, status, and/or priority
+     * of this ticket has changed from the given values, and records the
+     * transition for the flight recorder.
+     */
+    private void changed(Technician oldTechnician, Status oldStatus, Priority oldPriority) {
+    	HelpDeskEvents.TicketTransition.emit(this, oldTechnician, oldStatus, oldPriority);
+    	if (listener != null) {
+    		listener.ticketChanged(this, oldTechnician, oldStatus, oldPriority);
+    	}
+    }
+    
     public Stream<Event> getHistory() {
     	return history.stream();
     }
@@ -56,13 +158,35 @@ public class Ticket implements Comparable<Ticket> {
     	return tags.stream();
     }
     
+    /**
+     * Returns only the events recorded on this ticket itself, even if
+     * a subclass includes others in its {@link #getHistory history}.
+     */
+    public Stream<Event> getOwnHistory() {
+    	return history.stream();
+    }
+    
+    /**
+     * Returns only the tags applied to this ticket itself, even if
+     * a subclass includes others in its {@link #getTags tags}.
+     */
+    public Stream<Tag> getOwnTags() {
+    	return tags.stream();
+    }
+    
     public void assign(Technician technician) {
     	if (technician != null) {
 	        if (status != Status.RESOLVED) {
+	        	Technician oldTechnician = this.technician;
+	        	Status oldStatus = status;
 	            this.technician = technician;
 	            status = Status.ASSIGNED;
-	            history.add(new Event(ID, status, "Assigned to " + technician + "."));
+	            addEvent(status, assignmentNote(technician));
+	            if (oldTechnician != null && oldTechnician != technician) {
+	            	oldTechnician.releaseTicket(this);
+	            }
 	            technician.addActiveTicket(this);
+	            changed(oldTechnician, oldStatus, priority);
 	        } else {
 	            throw new IllegalStateException("Can't re-assign a resolved new ticket.");
 	        }
@@ -71,11 +195,119 @@ public class Ticket implements Comparable<Ticket> {
     	}
     }
     
+    /**
+     * Hands an open ticket to a different technician without changing 
+     * its status: a waiting ticket stays waiting. We update both
+     * technicians' active tickets before telling our listener, so that
+     * it sees the ticket where it now is.
+     */
+    public void reassign(Technician technician) {
+    	Technician oldTechnician = moveTo(technician);
+    	if (oldTechnician != technician) {
+    		oldTechnician.releaseTicket(this);
+    		technician.addActiveTicket(this);
+    		recordMove(oldTechnician);
+    	}
+    }
+    
+    /**
+     * Hands the ticket to the given technician, and returns the technician
+     * it had before. This leaves it to the caller to update the technicians'
+     * active tickets, so that a help desk can move many tickets at once,
+     * and then to {@link #recordMove record the move}.
+     */
+    Technician moveTo(Technician technician) {
+    	if (technician != null) {
+    		if (this.technician != null && status != Status.RESOLVED) {
+    			Technician oldTechnician = this.technician;
+    			this.technician = technician;
+    			return oldTechnician;
+    		} else {
+    			throw new IllegalStateException
+    				("Can only reassign a ticket that's assigned and not resolved.");
+    		}
+    	} else {
+    		throw new IllegalArgumentException("Technician must be non-null.");
+    	}
+    }
+    
+    /**
+     * Adds the note for a move from the given technician, and lets our
+     * listener know; call this once the active tickets are up to date.
+     */
+    void recordMove(Technician oldTechnician) {
+    	addEvent(null, assignmentNote(technician));
+    	changed(oldTechnician, status, priority);
+    }
+    
+    private String assignmentNote(Technician technician) {
+    	StringPool strings = tenant.getStrings();
+    	return strings != null 
+    			? strings.getAssignmentNote(technician)
+    			: technician.getAssignmentNote();
+    }
+    
+    /**
+     * Changes the priority of an open ticket. Since tickets are sorted by
+     * priority, we take this ticket out of our technician's active set and 
+     * work queue, and let our listener take it out of its own sets, before
+     * changing the priority; then we put it back. Each of these steps is
+     * O(log n).
+     */
+    public void setPriority(Priority newPriority, String reason) {
+    	if (newPriority != null && reason != null) {
+    		if (status != Status.RESOLVED) {
+    			if (newPriority != priority) {
+    				Priority oldPriority = priority;
+    				if (listener != null) {
+    					listener.priorityChanging(this);
+    				}
+    				boolean active = technician != null && technician.detach(this);
+    				priority = newPriority;
+    				if (active) {
+    					technician.attach(this);
+    				}
+    				addEvent(null, String.format("Changed priority from %s to %s: %s",
+    						oldPriority, newPriority, reason));
+    				changed(technician, status, oldPriority);
+    			}
+    		} else {
+    			throw new IllegalStateException("Can't change the priority of a resolved ticket.");
+    		}
+    	} else {
+    		throw new IllegalArgumentException("Priority and reason must be non-null.");
+    	}
+    }
+    
+    /**
+     * Raises the priority by one level.
+     */
+    public void escalate(String reason) {
+    	if (priority != Priority.URGENT) {
+    		setPriority(Priority.values()[priority.ordinal() + 1], reason);
+    	} else {
+    		throw new IllegalStateException("Can't escalate an URGENT ticket.");
+    	}
+    }
+    
+    /**
+     * Lowers the priority by one level.
+     */
+    public void deEscalate(String reason) {
+    	if (priority != Priority.LOW) {
+    		setPriority(Priority.values()[priority.ordinal() - 1], reason);
+    	} else {
+    		throw new IllegalStateException("Can't de-escalate a LOW ticket.");
+    	}
+    }
+    
     public void wait(String reason) {
     	if (reason != null) {
 	    	if (status == Status.ASSIGNED) {
 	    		status = Status.WAITING;
-	    		history.add(new Event(ID, status, reason));
+	    		addEvent(status, lookup(reason));
+	    		technician.updateWorkQueue(this);
+	    		changed(technician, Status.ASSIGNED, priority);
 	    	} else {
 	    		throw new IllegalStateException("Can't wait until the ticket is assigned.");
 	    	}
@@ -88,7 +320,9 @@ public class Ticket implements Comparable<Ticket> {
     	if (reason != null) {
 	    	if (status == Status.WAITING) { 
 	    		status = Status.ASSIGNED;
-	    		history.add(new Event(ID, status, reason));
+	    		addEvent(status, lookup(reason));
+	    		technician.updateWorkQueue(this);
+	    		changed(technician, Status.WAITING, priority);
 	    	} else {
 	    		throw new IllegalStateException("Can't seume a ticket that isn't in the WAITING state.");
 	    	}
@@ -99,7 +333,7 @@ public class Ticket implements Comparable<Ticket> {
     
     public void addNote(String note) {
     	if (note != null) {
-    		history.add(new Event(ID, note));
+    		addEvent(null, note);
     	} else {
     		throw new IllegalArgumentException("Note must be non-null.");
     	}
@@ -109,8 +343,9 @@ public class Ticket implements Comparable<Ticket> {
     	if (reason != null) {
 	        if (status == Status.ASSIGNED) {
 	            status = Status.RESOLVED;
-	            history.add(new Event(ID, status, reason));
+	            addEvent(status, lookup(reason));
 	            technician.removeActiveTicket(this);
+	            changed(technician, Status.ASSIGNED, priority);
 	        } else {
 	        	throw new IllegalStateException("Can't resolve an unassigned ticket.");
 	        }
@@ -120,16 +355,88 @@ public class Ticket implements Comparable<Ticket> {
     }
 
     public void addTags(String... tagValues) {
-    	if (tagValues != null && 
-    			!Arrays.stream(tagValues).anyMatch(t -> t == null)) {
+    	if (tagValues != null && noNulls(tagValues)) {
 			for (String tagValue : tagValues) {
-				tags.add(Tag.getTag(tagValue));
+				Tag tag = tenant.getTags().getTag(tagValue);
+				if (tags.add(tag) && listener != null) {
+					listener.tagAdded(this, tag);
+				}
 			}
     	} else {
     		throw new IllegalArgumentException("Values must be non-null.");
     	}
     }
-
+    
+    /**
+     * A plain loop rather than a stream, since tags are added to 
+     * nearly every ticket and this shouldn't create any garbage.
+     */
+    static boolean noNulls(String[] values) {
+    	for (String value : values) {
+    		if (value == null) {
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+    
+    public long getCreatedTime() {
+    	return history.get(0).getTimestamp();
+    }
+    
+    /**
+     * Returns the time of the latest event in this ticket's own history.
+     */
+    public long getLastUpdatedTime() {
+    	return history.get(history.size() - 1).getTimestamp();
+    }
+    
+    /**
+     * Returns the status this ticket had at the given time, according to
+     * its own history; or null if it hadn't been created yet. 
+     */
+    public Status getStatusAsOf(long time) {
+    	int low = 0;
+    	int high = history.size();
+    	while (low < high) {
+    		int middle = (low + high) >>> 1;
+    		if (history.get(middle).getTimestamp() <= time) {
+    			low = middle + 1;
+    		} else {
+    			high = middle;
+    		}
+    	}
+    	for (int i = low - 1; i >= 0; --i) {
+    		Status newStatus = history.get(i).getNewStatus();
+    		if (newStatus != null) {
+    			return newStatus;
+    		}
+    	}
+    	return null;
+    }
+    
+    /**
+     * Returns the priority this ticket has earned by waiting, 
+     * as of the given time: one level higher for each 
+     * {@link #AGING_INTERVAL}, up to URGENT.
+     */
+    public Priority getEffectivePriority(long time) {
+    	long steps = Math.max(0, (time - getCreatedTime()) / AGING_INTERVAL);
+    	int level = (int) Math.min(priority.ordinal() + steps, Priority.URGENT.ordinal());
+    	return Priority.values()[level];
+    }
+    
+    /**
+     * Returns a key that orders tickets by aged priority. Since every ticket
+     * ages at the same rate, the order doesn't change as time passes, 
+     * and so this key doesn't depend on the current time: a ticket created
+     * one interval earlier ranks the same as one created at the same time
+     * with one level higher priority. Lower keys are more urgent.
+     */
+    public long getAgingKey() {
+    	return getCreatedTime() - priority.ordinal() * AGING_INTERVAL;
+    }
+    
     public int getMinutesToResolve() {
     	final int MILLISECONDS_PER_MINUTE = 60000;
         if (status == Status.RESOLVED) {
@@ -0,0 +1,126 @@
+package com.amica.help;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.amica.help.Ticket.Priority;
+
+/**
+ * A columnar copy of the facts about each ticket that reports need:
+ * when it was created and resolved, its priority, its technician's 
+ * ordinal, and how many times over it has been reopened. Each fact is 
+ * a primitive array indexed by ticket ID - 1, so a report can run down
+ * the columns in one pass without touching any ticket objects. A 
+ * {@link HelpDesk} keeps the columns current as tickets change.
+ */
+public class TicketColumns {
+
+	public static final long UNRESOLVED = Long.MIN_VALUE;
+	
+	private static final int INITIAL_CAPACITY = 64;
+	
+	private long[] createdTimes = {};
+	private long[] resolvedTimes = {};
+	private byte[] priorities = {};
+	private int[] technicians = {};
+	private byte[] reopenDepths = {};
+	private int size;
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * The columns start out empty, and are sized for the first ticket
+	 * only when it arrives.
+	 */
+	private void ensureCapacity(int rows) {
+		if (rows > createdTimes.length) {
+			int capacity = Math.max(rows, 
+					Math.max(INITIAL_CAPACITY, createdTimes.length * 2));
+			createdTimes = Arrays.copyOf(createdTimes, capacity);
+			resolvedTimes = Arrays.copyOf(resolvedTimes, capacity);
+			priorities = Arrays.copyOf(priorities, capacity);
+			technicians = Arrays.copyOf(technicians, capacity);
+			reopenDepths = Arrays.copyOf(reopenDepths, capacity);
+		}
+	}
+	
+	/**
+	 * Adds a row for a ticket with the next ID, or refreshes the row 
+	 * for a ticket we already have. A reopened ticket is one deeper than
+	 * the ticket it reopens, which must already have a row.
+	 */
+	public void update(Ticket ticket, long resolvedTime) {
+		int row = ticket.getID() - 1;
+		if (row == size) {
+			ensureCapacity(++size);
+			createdTimes[row] = ticket.getCreatedTime();
+		} else if (row < 0 || row > size) {
+			throw new IllegalArgumentException("Tickets must be added in ID order.");
+		}
+		
+		// A reopened ticket reports its first change before it knows its prior:
+		Ticket prior = ticket instanceof ReopenedTicket reopened 
+				? reopened.getPriorTicket() : null;
+		reopenDepths[row] = prior != null
+				? (byte) Math.min(Byte.MAX_VALUE, reopenDepths[prior.getID() - 1] + 1) : 0;
+		resolvedTimes[row] = resolvedTime;
+		priorities[row] = (byte) ticket.getPriority().ordinal();
+		technicians[row] = ticket.getTechnician() != null 
+				? ticket.getTechnician().getOrdinal() : -1;
+	}
+	
+	/**
+	 * Computes all of the aggregates in a {@link TicketReport} for the
+	 * tickets created in the given time range, in a single pass. 
+	 * The technician IDs are listed by ordinal.
+	 */
+	public TicketReport report(long from, long to, List<String> technicianIDs) {
+		if (to <= from) {
+			throw new IllegalArgumentException("The time range must not be empty.");
+		}
+		
+		final int PRIORITIES = Priority.values().length;
+		final int BUCKETS = TicketReport.BUCKET_LIMITS.length + 1;
+		final int TECHNICIANS = technicianIDs.size();
+		int days = (int) ((to - from + TicketReport.DAY - 1) / TicketReport.DAY);
+		
+		int[] created = new int[PRIORITIES];
+		int[] resolved = new int[PRIORITIES];
+		long[] minutesToResolve = new long[PRIORITIES];
+		int[] histogram = new int[PRIORITIES * BUCKETS];
+		int[] perDay = new int[days * TECHNICIANS];
+		int reopened = 0;
+		
+		for (int row = 0; row < size; ++row) {
+			long createdTime = createdTimes[row];
+			if (createdTime < from || createdTime >= to) {
+				continue;
+			}
+			
+			int priority = priorities[row];
+			++created[priority];
+			int technician = technicians[row];
+			if (technician >= 0 && technician < TECHNICIANS) {
+				++perDay[(int) ((createdTime - from) / TicketReport.DAY) * TECHNICIANS + technician];
+			}
+			reopened += reopenDepths[row] != 0 ? 1 : 0;
+			
+			long resolvedTime = resolvedTimes[row];
+			if (resolvedTime != UNRESOLVED) {
+				long minutes = (resolvedTime - createdTime) / 60000;
+				++resolved[priority];
+				minutesToResolve[priority] += minutes;
+				int bucket = 0;
+				while (bucket < BUCKETS - 1 && minutes >= TicketReport.BUCKET_LIMITS[bucket]) {
+					++bucket;
+				}
+				++histogram[priority * BUCKETS + bucket];
+			}
+		}
+		
+		return new TicketReport(from, to, technicianIDs, created, resolved, 
+				minutesToResolve, histogram, perDay, reopened);
+	}
+}
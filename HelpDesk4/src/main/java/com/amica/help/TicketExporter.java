@@ -0,0 +1,315 @@
+package com.amica.help;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * Writes tickets, their event histories, and their tags to files, 
+ * either as CSV or in a compact binary format. Tickets are taken one at
+ * a time from an iterator, and everything is encoded straight into direct
+ * buffers that are allocated once and reused for every export, so that
+ * exporting a large desk creates very little garbage. Timestamps are 
+ * written as milliseconds since the epoch, rather than formatted.
+ * 
+ * The CSV export writes three files:
+ * <ul>
+ *   <li>tickets: ID, prior ticket ID (or 0), originator, description,
+ *       priority, status, technician ID</li>
+ *   <li>events: ticket ID, timestamp, new status, note</li>
+ *   <li>tags: ticket ID, tag</li>
+ * </ul>
+ * Numbers and enumerated values are written bare; strings are always quoted,
+ * with embedded quotes doubled. Each ticket's own events and tags are written;
+ * a reopened ticket's prior ticket appears in its own rows.
+ * 
+ * The binary export writes a single file that starts with {@link #MAGIC},
+ * followed by one record per ticket, event, and tag, each starting with 
+ * a record-type byte. Ints and longs are big-endian; strings are an int
+ * length in bytes followed by UTF-8; a missing status or technician is
+ * written as -1 or an empty string.
+ */
+public class TicketExporter {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+	public static final int MAGIC = 0x48445831; // "HDX1"
+	public static final byte TICKET_RECORD = 1;
+	public static final byte EVENT_RECORD = 2;
+	public static final byte TAG_RECORD = 3;
+	
+	/**
+	 * A channel and a buffer, with methods to encode values into the buffer,
+	 * flushing to the channel as it fills up.
+	 */
+	private static class Output implements AutoCloseable {
+		
+		private FileChannel channel;
+		private ByteBuffer buffer;
+		
+		public Output(Path file, ByteBuffer buffer) throws IOException {
+			this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			this.buffer = buffer;
+			buffer.clear();
+		}
+		
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+		
+		public void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+		
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+		
+		public void putByte(int value) throws IOException {
+			ensure(1);
+			buffer.put((byte) value);
+		}
+		
+		public void putInt(int value) throws IOException {
+			ensure(4);
+			buffer.putInt(value);
+		}
+		
+		public void putLong(long value) throws IOException {
+			ensure(8);
+			buffer.putLong(value);
+		}
+		
+		/**
+		 * Writes the decimal digits of the value, without creating a string.
+		 */
+		public void putDecimal(long value) throws IOException {
+			ensure(20);
+			if (value == 0) {
+				buffer.put((byte) '0');
+				return;
+			}
+			if (value < 0) {
+				buffer.put((byte) '-');
+			}
+			int start = buffer.position();
+			while (value != 0) {
+				buffer.put((byte) ('0' + Math.abs(value % 10)));
+				value /= 10;
+			}
+			for (int left = start, right = buffer.position() - 1; 
+					left < right; ++left, --right) {
+				byte swap = buffer.get(left);
+				buffer.put(left, buffer.get(right));
+				buffer.put(right, swap);
+			}
+		}
+		
+		/**
+		 * Writes an ASCII string such as an enumerated value's name.
+		 */
+		public void putASCII(String value) throws IOException {
+			ensure(value.length());
+			for (int i = 0; i < value.length(); ++i) {
+				buffer.put((byte) value.charAt(i));
+			}
+		}
+		
+		/**
+		 * Encodes the string as UTF-8, doubling any quotes if asked.
+		 */
+		public void putUTF8(String value, boolean doubleQuotes) throws IOException {
+			for (int i = 0; i < value.length(); ++i) {
+				char c = value.charAt(i);
+				ensure(4);
+				if (c < 0x80) {
+					buffer.put((byte) c);
+					if (c == '"' && doubleQuotes) {
+						buffer.put((byte) c);
+					}
+				} else if (c < 0x800) {
+					buffer.put((byte) (0xC0 | (c >> 6)));
+					buffer.put((byte) (0x80 | (c & 0x3F)));
+				} else if (Character.isHighSurrogate(c) && i + 1 < value.length() &&
+						Character.isLowSurrogate(value.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, value.charAt(++i));
+					buffer.put((byte) (0xF0 | (codePoint >> 18)));
+					buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+					buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+					buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+				} else {
+					buffer.put((byte) (0xE0 | (c >> 12)));
+					buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+					buffer.put((byte) (0x80 | (c & 0x3F)));
+				}
+			}
+		}
+		
+		public void putQuoted(String value) throws IOException {
+			putByte('"');
+			putUTF8(value, true);
+			putByte('"');
+		}
+		
+		/**
+		 * Writes a length-prefixed UTF-8 string. We reserve room for the 
+		 * length and the longest possible encoding (with a little slack, since
+		 * {@link #putUTF8 putUTF8} checks for 4 bytes per character), encode, 
+		 * and then go back and fill in the length. If the string won't fit
+		 * in the buffer, we encode it separately.
+		 */
+		public void putBinaryString(String value) throws IOException {
+			int maxLength = value.length() * 3 + 8;
+			if (maxLength <= buffer.capacity()) {
+				ensure(maxLength);
+				int lengthPosition = buffer.position();
+				buffer.putInt(0);
+				putUTF8(value, false);
+				buffer.putInt(lengthPosition, buffer.position() - lengthPosition - 4);
+			} else {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				putInt(bytes.length);
+				for (byte b : bytes) {
+					putByte(b);
+				}
+			}
+		}
+	}
+	
+	private ByteBuffer ticketBuffer;
+	private ByteBuffer eventBuffer;
+	private ByteBuffer tagBuffer;
+	
+	public TicketExporter() {
+		this(DEFAULT_BUFFER_SIZE);
+	}
+	
+	public TicketExporter(int bufferSize) {
+		ticketBuffer = ByteBuffer.allocateDirect(bufferSize);
+		eventBuffer = ByteBuffer.allocateDirect(bufferSize);
+		tagBuffer = ByteBuffer.allocateDirect(bufferSize);
+	}
+	
+	private static int priorID(Ticket ticket) {
+		return ticket instanceof ReopenedTicket reopened 
+				? reopened.getPriorTicket().getID() : 0;
+	}
+	
+	/**
+	 * Writes the tickets, and their events and tags, as CSV.
+	 * Returns the number of tickets written.
+	 */
+	public int exportCSV(Iterator<Ticket> tickets, 
+			Path ticketsFile, Path eventsFile, Path tagsFile) throws IOException {
+		int count = 0;
+		try ( Output ticketOut = new Output(ticketsFile, ticketBuffer);
+			  Output eventOut = new Output(eventsFile, eventBuffer);
+			  Output tagOut = new Output(tagsFile, tagBuffer); ) {
+			while (tickets.hasNext()) {
+				Ticket ticket = tickets.next();
+				writeCSV(ticket, ticketOut);
+				for (Iterator<Event> events = ticket.getOwnHistory().iterator(); 
+						events.hasNext(); ) {
+					writeCSV(events.next(), eventOut);
+				}
+				for (Iterator<Tag> tags = ticket.getOwnTags().iterator(); 
+						tags.hasNext(); ) {
+					tagOut.putDecimal(ticket.getID());
+					tagOut.putByte(',');
+					tagOut.putQuoted(tags.next().getValue());
+					tagOut.putByte('\n');
+				}
+				++count;
+			}
+		}
+		return count;
+	}
+	
+	private void writeCSV(Ticket ticket, Output out) throws IOException {
+		out.putDecimal(ticket.getID());
+		out.putByte(',');
+		out.putDecimal(priorID(ticket));
+		out.putByte(',');
+		out.putQuoted(ticket.getOriginator());
+		out.putByte(',');
+		out.putQuoted(ticket.getDescription());
+		out.putByte(',');
+		out.putASCII(ticket.getPriority().name());
+		out.putByte(',');
+		out.putASCII(ticket.getStatus().name());
+		out.putByte(',');
+		if (ticket.getTechnician() != null) {
+			out.putQuoted(ticket.getTechnician().getID());
+		}
+		out.putByte('\n');
+	}
+	
+	private void writeCSV(Event event, Output out) throws IOException {
+		out.putDecimal(event.getTicketID());
+		out.putByte(',');
+		out.putDecimal(event.getTimestamp());
+		out.putByte(',');
+		if (event.getNewStatus() != null) {
+			out.putASCII(event.getNewStatus().name());
+		}
+		out.putByte(',');
+		out.putQuoted(event.getNote());
+		out.putByte('\n');
+	}
+	
+	/**
+	 * Writes the tickets, and their events and tags, in our binary format.
+	 * Returns the number of tickets written.
+	 */
+	public int exportBinary(Iterator<Ticket> tickets, Path file) throws IOException {
+		int count = 0;
+		try ( Output out = new Output(file, ticketBuffer); ) {
+			out.putInt(MAGIC);
+			while (tickets.hasNext()) {
+				Ticket ticket = tickets.next();
+				out.putByte(TICKET_RECORD);
+				out.putInt(ticket.getID());
+				out.putInt(priorID(ticket));
+				out.putBinaryString(ticket.getOriginator());
+				out.putBinaryString(ticket.getDescription());
+				out.putByte(ticket.getPriority().ordinal());
+				out.putByte(ticket.getStatus().ordinal());
+				out.putBinaryString(ticket.getTechnician() != null
+						? ticket.getTechnician().getID() : "");
+				
+				for (Iterator<Event> events = ticket.getOwnHistory().iterator(); 
+						events.hasNext(); ) {
+					Event event = events.next();
+					out.putByte(EVENT_RECORD);
+					out.putInt(event.getTicketID());
+					out.putLong(event.getTimestamp());
+					out.putByte(event.getNewStatus() != null 
+							? event.getNewStatus().ordinal() : -1);
+					out.putBinaryString(event.getNote());
+				}
+				for (Iterator<Tag> tags = ticket.getOwnTags().iterator(); 
+						tags.hasNext(); ) {
+					out.putByte(TAG_RECORD);
+					out.putInt(ticket.getID());
+					out.putBinaryString(tags.next().getValue());
+				}
+				++count;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,35 @@
+package com.amica.help;
+
+/**
+ * Receives notice of changes to a {@link Ticket}, so that the
+ * {@link HelpDesk} that owns the ticket can keep its indexes up to date
+ * without re-scanning all of its tickets.
+ */
+public interface TicketListener {
+
+	/**
+	 * Called each time an event is added to the ticket's own history.
+	 */
+	public void eventAdded(Ticket ticket, Event event);
+	
+	/**
+	 * Called each time the ticket's technician, status, or priority changes,
+	 * with the values it had before the change. When the ticket is first
+	 * created, all of the old values are null.
+	 */
+	public void ticketChanged(Ticket ticket, Technician oldTechnician, 
+			Ticket.Status oldStatus, Ticket.Priority oldPriority);
+	
+	/**
+	 * Called just before the ticket's priority changes, so that the ticket
+	 * can be taken out of any set that's sorted by priority; it should be
+	 * put back when {@link #ticketChanged ticketChanged} is called.
+	 */
+	public void priorityChanging(Ticket ticket);
+	
+	/**
+	 * Called each time a tag is added to the ticket; tags that the
+	 * ticket already has are not reported again.
+	 */
+	public void tagAdded(Ticket ticket, Tag tag);
+}
@@ -0,0 +1,112 @@
+package com.amica.help;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.amica.help.Ticket.Priority;
+
+import lombok.Getter;
+
+/**
+ * Aggregates over the tickets created in a time range, as computed by 
+ * {@link TicketColumns#report}: counts created and resolved by priority,
+ * average and histogram of minutes to resolve by priority, tickets 
+ * created per day per technician, and how many were reopenings.
+ */
+public class TicketReport {
+
+	public static final long DAY = 24 * 60 * 60 * 1000;
+	
+	/**
+	 * Upper bounds, in minutes, of all but the last histogram bucket:
+	 * under 15 minutes, under an hour, under 4 hours, under a day,
+	 * under 3 days, and 3 days or more.
+	 */
+	public static final long[] BUCKET_LIMITS = { 15, 60, 4 * 60, 24 * 60, 3 * 24 * 60 };
+	
+	@Getter
+	private long from;
+	@Getter
+	private long to;
+	private List<String> technicianIDs;
+	private int[] created;
+	private int[] resolved;
+	private long[] minutesToResolve;
+	private int[] histogram;
+	private int[] perDay;
+	@Getter
+	private int reopenedCount;
+	
+	TicketReport(long from, long to, List<String> technicianIDs, 
+			int[] created, int[] resolved, long[] minutesToResolve, 
+			int[] histogram, int[] perDay, int reopenedCount) {
+		this.from = from;
+		this.to = to;
+		this.technicianIDs = List.copyOf(technicianIDs);
+		this.created = created;
+		this.resolved = resolved;
+		this.minutesToResolve = minutesToResolve;
+		this.histogram = histogram;
+		this.perDay = perDay;
+		this.reopenedCount = reopenedCount;
+	}
+	
+	public int getTicketCount() {
+		return Arrays.stream(created).sum();
+	}
+	
+	public int getCreatedCount(Priority priority) {
+		return created[priority.ordinal()];
+	}
+	
+	public int getResolvedCount(Priority priority) {
+		return resolved[priority.ordinal()];
+	}
+	
+	/**
+	 * Returns the average minutes to resolve tickets of the given priority,
+	 * or NaN if none were resolved.
+	 */
+	public double getAverageMinutesToResolve(Priority priority) {
+		int count = resolved[priority.ordinal()];
+		return count != 0 ? (double) minutesToResolve[priority.ordinal()] / count : Double.NaN;
+	}
+	
+	/**
+	 * Returns counts of resolved tickets of the given priority in each
+	 * bucket of time to resolve; see {@link #BUCKET_LIMITS}.
+	 */
+	public int[] getResolutionHistogram(Priority priority) {
+		int buckets = BUCKET_LIMITS.length + 1;
+		int start = priority.ordinal() * buckets;
+		return Arrays.copyOfRange(histogram, start, start + buckets);
+	}
+	
+	/**
+	 * Returns the number of tickets assigned to the given technician 
+	 * that were created on each day of the range, counting days of 24 
+	 * hours from the start of the range. Returns all zeroes if there's
+	 * no such technician.
+	 */
+	public int[] getCreatedPerDay(String techID) {
+		int technicians = technicianIDs.size();
+		int days = technicians != 0 ? perDay.length / technicians : 0;
+		int[] result = new int[days];
+		int ordinal = technicianIDs.indexOf(techID);
+		if (ordinal >= 0) {
+			for (int day = 0; day < days; ++day) {
+				result[day] = perDay[day * technicians + ordinal];
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the fraction of tickets in the range that are reopenings
+	 * of earlier tickets, or NaN if there are no tickets.
+	 */
+	public double getReopenRate() {
+		int total = getTicketCount();
+		return total != 0 ? (double) reopenedCount / total : Double.NaN;
+	}
+}
@@ -0,0 +1,13 @@
+package com.amica.help;
+
+/**
+ * A source of the current time, in milliseconds since the epoch.
+ * A {@link HelpDesk} stamps its tickets and events from one of these,
+ * so it can run on the system clock, on the shared simulated {@link Clock},
+ * or on a simulated clock of its own.
+ */
+@FunctionalInterface
+public interface TimeSource {
+
+	public long getTime();
+}
@@ -0,0 +1,84 @@
+package com.amica.help;
+
+import java.util.Arrays;
+
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * Live counts of tickets by technician, {@link Status}, and {@link Priority},
+ * held in a single primitive array indexed by technician ordinal, status
+ * ordinal, and priority ordinal. A {@link HelpDesk} moves a ticket from
+ * one cell to another on every transition, so count queries never need
+ * to look at the tickets themselves. Tickets that have no technician,
+ * i.e. newly created ones, are not counted.
+ */
+public class WorkloadCube {
+
+	private static final int STATUSES = Status.values().length;
+	private static final int PRIORITIES = Priority.values().length;
+	private static final int CELLS = STATUSES * PRIORITIES;
+	
+	private int[] counts = {};
+	
+	private static int index(int ordinal, Status status, Priority priority) {
+		return ordinal * CELLS + status.ordinal() * PRIORITIES + priority.ordinal();
+	}
+	
+	/**
+	 * We grow the array as technicians get tickets, rather than sizing it
+	 * up front, so that a new desk holds no counts at all.
+	 */
+	private void ensureCapacity(int ordinal) {
+		if ((ordinal + 1) * CELLS > counts.length) {
+			counts = Arrays.copyOf(counts, Math.max(counts.length * 2, (ordinal + 1) * CELLS));
+		}
+	}
+	
+	public void add(Technician technician, Status status, Priority priority) {
+		if (technician != null && technician.getOrdinal() >= 0) {
+			ensureCapacity(technician.getOrdinal());
+			++counts[index(technician.getOrdinal(), status, priority)];
+		}
+	}
+	
+	public void remove(Technician technician, Status status, Priority priority) {
+		if (technician != null && technician.getOrdinal() >= 0) {
+			--counts[index(technician.getOrdinal(), status, priority)];
+		}
+	}
+	
+	public int count(int ordinal, Status status, Priority priority) {
+		int index = index(ordinal, status, priority);
+		return index < counts.length ? counts[index] : 0;
+	}
+	
+	public int count(int ordinal, Status status) {
+		int result = 0;
+		for (Priority priority : Priority.values()) {
+			result += count(ordinal, status, priority);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the number of tickets the technician holds in any status
+	 * other than RESOLVED.
+	 */
+	public int countOpen(int ordinal) {
+		return count(ordinal, Status.ASSIGNED) + count(ordinal, Status.WAITING);
+	}
+	
+	/**
+	 * Returns the number of tickets with the given status and priority,
+	 * across all technicians.
+	 */
+	public int total(Status status, Priority priority) {
+		int result = 0;
+		int offset = status.ordinal() * PRIORITIES + priority.ordinal();
+		for (int index = offset; index < counts.length; index += CELLS) {
+			result += counts[index];
+		}
+		return result;
+	}
+}
@@ -0,0 +1,153 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Ticket.Priority;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Regression tests for the memory allocated by our most frequent
+ * operations. We run each operation enough times for the JIT to settle,
+ * then read the thread's allocation counter around a batch of calls,
+ * and fail if the average per call is over budget. The budgets are
+ * in bytes, and include some headroom over what we see today; an
+ * operation that's meant to be allocation-free gets a budget of zero,
+ * but we allow a few bytes per call for the measurement itself.
+ */
+public class AllocationBudgetTest {
+
+	public static final int WARM_UP = 20_000;
+	public static final int CALLS = 10_000;
+	public static final long NOISE = 8;
+
+	public static final long TAG_LOOKUP_BUDGET = 0;
+	public static final long ADD_EXISTING_TAGS_BUDGET = 0;
+	public static final long GET_TICKET_BUDGET = 0;
+	public static final long FORMAT_TIME_BUDGET = 0;
+	public static final long ADD_NOTE_BUDGET = 128;
+	public static final long ASSIGN_BUDGET = 256;
+	public static final long CREATE_TICKET_BUDGET = 8192;
+	public static final long CREATE_TAGGED_TICKET_BUDGET = 10240;
+
+	private static ThreadMXBean threads;
+
+	private SimulatedTimeSource clock;
+	private TagRegistry tags;
+	private HelpDesk helpDesk;
+
+	@BeforeAll
+	public static void setUpClass() {
+		threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+	}
+
+	@BeforeEach
+	public void setUp() {
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		clock = new SimulatedTimeSource(Clock.parse("11/1/21 8:00"));
+		tags = new TagRegistry();
+		tags.addSynonym("allocwifi", "AllocNetwork");
+		helpDesk = new HelpDesk(new Tenant("alloc", clock, tags, new StringPool()));
+		helpDesk.addTechnician("A05589", "Andree", 12345);
+		helpDesk.addTechnician("A12312", "Boris", 12346);
+		helpDesk.addSkills("A12312", "AllocNetwork");
+	}
+
+	/**
+	 * Returns the average number of bytes allocated by the given operation,
+	 * after warming it up.
+	 */
+	private static long bytesPerCall(Runnable operation) {
+		for (int i = 0; i < WARM_UP; ++i) {
+			operation.run();
+		}
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < CALLS; ++i) {
+			operation.run();
+		}
+		return (threads.getCurrentThreadAllocatedBytes() - before) / CALLS;
+	}
+
+	private static void assertWithinBudget(String operation, long budget, Runnable code) {
+		assertThat(operation + " allocated too much:",
+				bytesPerCall(code), lessThanOrEqualTo(budget + NOISE));
+	}
+
+	@Test
+	public void testTagLookup() {
+		tags.getTag("AllocVPN");
+		assertWithinBudget("Tag lookup", TAG_LOOKUP_BUDGET,
+				() -> tags.getTag("AllocVPN"));
+	}
+
+	@Test
+	public void testTagLookup_Synonym() {
+		tags.getTag("allocwifi");
+		assertWithinBudget("Tag lookup by synonym", TAG_LOOKUP_BUDGET,
+				() -> tags.getTag("allocwifi"));
+	}
+
+	@Test
+	public void testAddExistingTags() {
+		int ID = helpDesk.createTicket("A", "B", Priority.LOW, "AllocVPN", "allocwifi");
+		Ticket ticket = helpDesk.getTicketByID(ID);
+		String[] values = { "AllocVPN", "allocwifi" };
+		assertWithinBudget("Adding existing tags", ADD_EXISTING_TAGS_BUDGET,
+				() -> ticket.addTags(values));
+	}
+
+	@Test
+	public void testGetTicketByID() {
+		helpDesk.createTicket("A", "B", Priority.LOW);
+		assertWithinBudget("Getting a ticket", GET_TICKET_BUDGET,
+				() -> helpDesk.getTicketByID(1));
+	}
+
+	@Test
+	public void testFormatTime() {
+		long time = Clock.parse("11/1/21 8:00");
+		Clock.format(time);
+		assertWithinBudget("Formatting a time", FORMAT_TIME_BUDGET,
+				() -> Clock.format(time));
+	}
+
+	@Test
+	public void testAddNote() {
+		Ticket ticket = new Ticket(1, "A", "B", Priority.LOW);
+		assertWithinBudget("Adding a note", ADD_NOTE_BUDGET,
+				() -> ticket.addNote("Called the user."));
+	}
+
+	@Test
+	public void testAssign() {
+		Technician[] technicians = {
+			new Technician("A05589", "Andree", 12345),
+			new Technician("A12312", "Boris", 12346)
+		};
+		Ticket ticket = new Ticket(1, "A", "B", Priority.LOW);
+		int[] calls = { 0 };
+		assertWithinBudget("Assigning a ticket", ASSIGN_BUDGET,
+				() -> ticket.assign(technicians[++calls[0] % 2]));
+	}
+
+	@Test
+	public void testCreateTicket() {
+		assertWithinBudget("Creating a ticket", CREATE_TICKET_BUDGET,
+				() -> helpDesk.createTicket("A", "B", Priority.LOW));
+	}
+
+	@Test
+	public void testCreateTicket_Tagged() {
+		assertWithinBudget("Creating a tagged ticket", CREATE_TAGGED_TICKET_BUDGET,
+				() -> helpDesk.createTicket("A", "B", Priority.LOW, "allocwifi"));
+	}
+}
@@ -0,0 +1,80 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Ticket.Status;
+
+/**
+ * Unit test for the {@link AsOfIndex} class. We record enough changes
+ * to span several checkpoints, some of them out of order, and compare
+ * answers to totals computed by brute force.
+ */
+public class AsOfIndexTest {
+
+	private record Change(long time, Status oldStatus, Technician oldTechnician,
+			Status newStatus, Technician newTechnician) {}
+	
+	private static boolean isOpen(Status status) {
+		return status != null && status != Status.RESOLVED;
+	}
+	
+	@Test
+	public void testAgainstBruteForce() {
+		Random random = new Random(42);
+		Technician[] technicians = new Technician[3];
+		for (int i = 0; i < technicians.length; ++i) {
+			technicians[i] = new Technician("T" + i, "Tech" + i, i);
+			technicians[i].setOrdinal(i);
+		}
+		
+		AsOfIndex index = new AsOfIndex();
+		List<Change> changes = new ArrayList<>();
+		for (int ticket = 0; ticket < 1500; ++ticket) {
+			long time = ticket * 10L + (ticket % 100 == 0 ? -500 : 0);
+			Technician technician = technicians[random.nextInt(technicians.length)];
+			changes.add(new Change(time, null, null, Status.CREATED, null));
+			changes.add(new Change(time, Status.CREATED, null, Status.ASSIGNED, technician));
+			if (random.nextBoolean()) {
+				changes.add(new Change(time + random.nextInt(5000), 
+						Status.ASSIGNED, technician, Status.RESOLVED, technician));
+			}
+		}
+		for (Change change : changes) {
+			index.record(change.time(), change.oldStatus(), change.oldTechnician(),
+					change.newStatus(), change.newTechnician());
+		}
+		
+		for (long time = -1000; time < 21000; time += 997) {
+			int backlog = 0;
+			int[] open = new int[technicians.length];
+			for (Change change : changes) {
+				if (change.time() <= time) {
+					if (isOpen(change.oldStatus())) {
+						--backlog;
+						if (change.oldTechnician() != null) {
+							--open[change.oldTechnician().getOrdinal()];
+						}
+					}
+					if (isOpen(change.newStatus())) {
+						++backlog;
+						if (change.newTechnician() != null) {
+							++open[change.newTechnician().getOrdinal()];
+						}
+					}
+				}
+			}
+			assertThat(index.getBacklog(time), equalTo(backlog));
+			int[] actual = index.getOpenByTechnician(time);
+			for (int i = 0; i < technicians.length; ++i) {
+				assertThat(i < actual.length ? actual[i] : 0, equalTo(open[i]));
+			}
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * Unit test for the {@link BulkImporter} class. We generate a help desk
+ * with some random activity, export it, import it into a new desk, 
+ * and check that exporting the new desk produces the same files.
+ * Small chunks assure that parsing really is split up.
+ */
+public class BulkImporterTest {
+
+	public static final int TICKETS = 200;
+	
+	@TempDir
+	public Path directory;
+	
+	private HelpDesk original;
+	private BulkImporter importer = new BulkImporter(16, 64);
+	
+	private static void addTechnicians(HelpDesk helpDesk) {
+		helpDesk.addTechnician("T1", "Tech1", 1);
+		helpDesk.addTechnician("T2", "Tech2", 2);
+		helpDesk.addTechnician("T3", "Tech3", 3);
+	}
+	
+	@BeforeEach
+	public void setUp() {
+		Random random = new Random(42);
+		SimulatedTimeSource clock = new SimulatedTimeSource(Clock.parse("1/3/22 8:00"));
+		original = new HelpDesk(clock);
+		addTechnicians(original);
+		for (int ID = 1; ID <= TICKETS; ++ID) {
+			clock.advance(random.nextInt(60) * 60000);
+			Priority priority = Priority.values()[random.nextInt(4)];
+			Ticket prior = original.getTicketByID(random.nextInt(ID));
+			if (prior != null && prior.getStatus() == Status.RESOLVED && random.nextInt(4) == 0) {
+				original.reopenTicket(prior.getID(), "Still broken, \"again\".", priority);
+			} else {
+				original.createTicket("A" + random.nextInt(20), 
+						"Problem, number " + ID + "\nwith two lines.", priority);
+			}
+			
+			Ticket ticket = original.getTicketByID(1 + random.nextInt(ID));
+			switch (random.nextInt(5)) {
+				case 0: ticket.addTags("tag" + random.nextInt(5)); break;
+				case 1: ticket.addNote("Note, with \"quotes\"."); break;
+				case 2: if (ticket.getStatus() == Status.ASSIGNED) ticket.wait("Waiting."); break;
+				case 3: if (ticket.getStatus() == Status.WAITING) ticket.resume("Back."); break;
+				default: if (ticket.getStatus() == Status.ASSIGNED) ticket.resolve("Fixed."); break;
+			}
+		}
+	}
+	
+	private void export(HelpDesk helpDesk, String prefix) throws IOException {
+		new TicketExporter(256).exportCSV(helpDesk.getTickets().iterator(),
+				directory.resolve(prefix + "tickets.csv"), 
+				directory.resolve(prefix + "events.csv"), 
+				directory.resolve(prefix + "tags.csv"));
+	}
+	
+	private void assertSameFile(String name) throws IOException {
+		assertThat(Files.readAllLines(directory.resolve("2" + name)),
+				equalTo(Files.readAllLines(directory.resolve("1" + name))));
+	}
+	
+	@Test
+	public void testRoundTrip() throws IOException {
+		export(original, "1");
+		HelpDesk imported = new HelpDesk();
+		addTechnicians(imported);
+		int count = importer.importCSV(imported, directory.resolve("1tickets.csv"),
+				directory.resolve("1events.csv"), directory.resolve("1tags.csv"));
+		assertThat(count, equalTo(TICKETS));
+		
+		export(imported, "2");
+		assertSameFile("tickets.csv");
+		assertSameFile("events.csv");
+		assertSameFile("tags.csv");
+		
+		assertThat(imported.getAverageMinutesToResolvePerTechnician(),
+				equalTo(original.getAverageMinutesToResolvePerTechnician()));
+		for (Status status : Status.values()) {
+			assertThat(imported.getWorkload("T1", status), 
+					equalTo(original.getWorkload("T1", status)));
+		}
+		assertThat(imported.getTechnicianByID("T2").getActiveTicketCount(), 
+				equalTo(original.getTechnicianByID("T2").getActiveTicketCount()));
+		assertThat(imported.getLatestActivity(20).map(Event::getTimestamp).toList(),
+				equalTo(original.getLatestActivity(20).map(Event::getTimestamp).toList()));
+		
+		int ID = imported.createTicket("A1", "New after import.", Priority.LOW);
+		assertThat(ID, equalTo(TICKETS + 1));
+	}
+	
+	@Test
+	public void testParseChunks() {
+		String data = "1,\"a,\nb\"\n2,\"c\"\"d\"\n3,\n";
+		List<List<String>> rows = importer.parse
+				(data.getBytes(StandardCharsets.UTF_8), List::copyOf);
+		assertThat(rows, contains(List.of("1", "a,\nb"), 
+				List.of("2", "c\"d"), List.of("3", "")));
+	}
+	
+	/**
+	 * A tiny window makes records straddle windows, and one record is
+	 * longer than a window, so the window has to grow.
+	 */
+	@Test
+	public void testParseFileInWindows() throws IOException {
+		String data = "1,\"a,\nb\"\n2,\"c\"\"d\"\n3,\"" + "x".repeat(40) + "\"\n4,\n5,e";
+		Path file = directory.resolve("windows.csv");
+		Files.write(file, data.getBytes(StandardCharsets.UTF_8));
+		BulkImporter small = new BulkImporter(2, 4);
+		List<List<String>> rows = small.parse(file, List::copyOf);
+		assertThat(rows, contains(List.of("1", "a,\nb"), List.of("2", "c\"d"), 
+				List.of("3", "x".repeat(40)), List.of("4", ""), List.of("5", "e")));
+	}
+	
+	@Test
+	public void testNonEmptyDesk() throws IOException {
+		export(original, "1");
+		assertThrows(IllegalStateException.class, () -> 
+			importer.importCSV(original, directory.resolve("1tickets.csv"),
+				directory.resolve("1events.csv"), directory.resolve("1tags.csv")));
+	}
+}
@@ -0,0 +1,86 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * Unit test for the {@link CachingHelpDesk} decorator.
+ */
+public class CachingHelpDeskTest {
+
+	private HelpDesk target;
+	private CachingHelpDesk helpDesk;
+	
+	@BeforeEach
+	public void setUp() {
+		Clock.setTime("1/6/22 8:00");
+		target = new HelpDesk();
+		target.addTechnician("T1", "Tech1", 1);
+		helpDesk = new CachingHelpDesk(target, 2);
+		helpDesk.createTicket("A", "Printer is jammed.", Priority.LOW);
+		helpDesk.createTicket("B", "Laptop won't start.", Priority.HIGH);
+	}
+	
+	@Test
+	public void testHit() {
+		assertThat(helpDesk.getTicketsByStatus(Status.ASSIGNED).count(), equalTo(2L));
+		assertThat(helpDesk.getTicketsByStatus(Status.ASSIGNED).count(), equalTo(2L));
+		assertThat(helpDesk.getMisses(), equalTo(1L));
+		assertThat(helpDesk.getHits(), equalTo(1L));
+	}
+	
+	@Test
+	public void testInvalidation() {
+		assertThat(helpDesk.getTicketsByStatus(Status.RESOLVED).count(), equalTo(0L));
+		helpDesk.getTicketByID(1).resolve("Cleared the jam.");
+		assertThat(helpDesk.getTicketsByStatus(Status.RESOLVED).count(), equalTo(1L));
+		assertThat(helpDesk.getMisses(), equalTo(2L));
+	}
+	
+	@Test
+	public void testUnrelatedChange() {
+		helpDesk.getTicketsWithAnyTag(Tag.getTag("printer"));
+		helpDesk.getTicketByID(2).wait("Waiting for the user.");
+		helpDesk.getTicketsWithAnyTag(Tag.getTag("printer"));
+		assertThat(helpDesk.getHits(), equalTo(1L));
+		
+		helpDesk.getTicketByID(1).addTags("printer");
+		assertThat(helpDesk.getTicketsWithAnyTag(Tag.getTag("printer")).count(), 
+				equalTo(1L));
+		assertThat(helpDesk.getHits(), equalTo(1L));
+	}
+	
+	@Test
+	public void testTextInvalidation() {
+		assertThat(helpDesk.getTicketsByText("toner").count(), equalTo(0L));
+		helpDesk.getTicketByID(1).addNote("Replaced the toner.");
+		assertThat(helpDesk.getTicketsByText("toner").count(), equalTo(1L));
+	}
+	
+	@Test
+	public void testEviction() {
+		helpDesk.getTicketsByStatus(Status.ASSIGNED);
+		helpDesk.getTicketsByStatus(Status.WAITING);
+		helpDesk.getTicketsByStatus(Status.RESOLVED);
+		assertThat(helpDesk.size(), equalTo(2));
+		helpDesk.getTicketsByStatus(Status.ASSIGNED);
+		assertThat(helpDesk.getMisses(), equalTo(4L));
+	}
+	
+	/**
+	 * The target desk finds nothing for null arguments, and so should we.
+	 */
+	@Test
+	public void testNullArguments() {
+		assertThat(helpDesk.getTicketsByStatus(null).count(), equalTo(0L));
+		assertThat(helpDesk.getTicketsByTechnician(null).count(), equalTo(0L));
+		assertThat(helpDesk.getTicketsByStatus(null).count(), equalTo(0L));
+		assertThat(helpDesk.getHits(), equalTo(1L));
+	}
+}
@@ -0,0 +1,58 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Ticket.Priority;
+
+/**
+ * Unit test for the {@link Clock} class and the {@link TimeSource}s
+ * that a {@link HelpDesk} can use.
+ */
+public class ClockTest {
+
+	public static final String TIME1 = "1/6/22 8:00";
+	public static final String TIME2 = "1/6/22 9:30";
+	
+	@Test
+	public void testSetAndFormat() {
+		Clock.setTime(TIME1);
+		assertThat(Clock.format(Clock.getTime()), equalTo(TIME1));
+		assertThat(Clock.getTime(), equalTo(Clock.parse(TIME1)));
+	}
+	
+	@Test
+	public void testFormatCache() {
+		long time = Clock.parse(TIME1);
+		String first = Clock.format(time);
+		assertThat(Clock.format(time + 59999), sameInstance(first));
+		assertThat(Clock.format(time + 60000), equalTo("1/6/22 8:01"));
+	}
+	
+	@Test
+	public void testSimulatedTimeSource() {
+		SimulatedTimeSource source = new SimulatedTimeSource();
+		source.setTime(TIME1);
+		source.advance(90 * 60000);
+		assertThat(Clock.format(source.getTime()), equalTo(TIME2));
+	}
+	
+	@Test
+	public void testSeparateDesks() {
+		SimulatedTimeSource source1 = new SimulatedTimeSource(Clock.parse(TIME1));
+		SimulatedTimeSource source2 = new SimulatedTimeSource(Clock.parse(TIME2));
+		HelpDesk helpDesk1 = new HelpDesk(source1);
+		HelpDesk helpDesk2 = new HelpDesk(source2);
+		helpDesk1.addTechnician("T1", "Tech1", 1);
+		helpDesk2.addTechnician("T2", "Tech2", 2);
+		
+		int ID1 = helpDesk1.createTicket("A", "Desk 1", Priority.LOW);
+		int ID2 = helpDesk2.createTicket("B", "Desk 2", Priority.LOW);
+		assertThat(Clock.format(helpDesk1.getTicketByID(ID1)
+				.getHistory().findFirst().get().getTimestamp()), equalTo(TIME1));
+		assertThat(Clock.format(helpDesk2.getTicketByID(ID2)
+				.getHistory().findFirst().get().getTimestamp()), equalTo(TIME2));
+	}
+}
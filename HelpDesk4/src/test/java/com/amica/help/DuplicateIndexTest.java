@@ -0,0 +1,69 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the {@link DuplicateIndex} class.
+ */
+public class DuplicateIndexTest {
+
+	public static final String OUTAGE = 
+			"The VPN is down this morning and I can't connect to anything at all.";
+	
+	private DuplicateIndex index;
+	
+	private List<Integer> IDs(List<DuplicateIndex.Match> matches) {
+		return matches.stream().map(DuplicateIndex.Match::ID).toList();
+	}
+	
+	@BeforeEach
+	public void setUp() {
+		index = new DuplicateIndex();
+		index.add(1, OUTAGE);
+		index.add(2, "Need GitHub access for the new project repository.");
+		index.add(3, "Laptop audio seems to be broken since the last update.");
+	}
+	
+	@Test
+	public void testExactDuplicate() {
+		List<DuplicateIndex.Match> matches = index.find(OUTAGE.toUpperCase());
+		assertThat(IDs(matches), contains(1));
+		assertThat(matches.get(0).similarity(), equalTo(1.0));
+	}
+	
+	@Test
+	public void testNearDuplicate() {
+		assertThat(IDs(index.find
+				("The VPN is down this morning and I can't connect to anything.")),
+				contains(1));
+	}
+	
+	@Test
+	public void testUnrelated() {
+		assertThat(index.find("Printer on the third floor is out of toner."), empty());
+		assertThat(index.find("..."), empty());
+	}
+	
+	@Test
+	public void testRemove() {
+		index.add(4, OUTAGE);
+		assertThat(IDs(index.find(OUTAGE)), contains(1, 4));
+		index.remove(1);
+		assertThat(IDs(index.find(OUTAGE)), contains(4));
+		assertThat(index.size(), equalTo(3));
+	}
+	
+	@Test
+	public void testManyTickets() {
+		for (int ID = 10; ID < 5000; ++ID) {
+			index.add(ID, "Unrelated problem number " + ID + " with system " + (ID * 7));
+		}
+		assertThat(IDs(index.find(OUTAGE)), contains(1));
+	}
+}
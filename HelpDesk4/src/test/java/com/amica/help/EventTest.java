@@ -60,4 +60,11 @@ public class EventTest {
 		assertThat(event1, lessThan(event2));
 	}
 	
+	@Test
+	public void testComparison_SameTimestamp() {
+		Event event3 = new Event(TICKET_ID, EVENT2_NOTE);
+		assertThat(event2, lessThan(event3));
+		assertThat(event3, greaterThan(event2));
+	}
+	
 }
@@ -0,0 +1,123 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Ticket.Priority;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit test for the flight-recorder events in {@link HelpDeskEvents}:
+ * we make a recording around some help-desk activity, and read it back.
+ */
+public class HelpDeskEventsTest {
+
+	public static final String TICKET_CREATED = "com.amica.help.TicketCreated";
+	public static final String TICKET_TRANSITION = "com.amica.help.TicketTransition";
+	public static final String TAG_MISS = "com.amica.help.TagMiss";
+	public static final String OPERATION = "com.amica.help.Operation";
+
+	private Recording recording;
+	private HelpDesk helpDesk;
+
+	@BeforeEach
+	public void setUp() {
+		recording = new Recording();
+		for (String name : List.of(TICKET_CREATED, TICKET_TRANSITION, TAG_MISS, OPERATION)) {
+			recording.enable(name).withoutThreshold();
+		}
+
+		SimulatedTimeSource clock = new SimulatedTimeSource(Clock.parse("11/1/21 8:00"));
+		helpDesk = new HelpDesk(new Tenant("jfr", clock, new TagRegistry(), new StringPool()));
+		helpDesk.addTechnician("A05589", "Andree", 12345);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		recording.close();
+	}
+
+	private List<RecordedEvent> stop(String name) throws Exception {
+		recording.stop();
+		Path file = Files.createTempFile("HelpDeskEventsTest", ".jfr");
+		try {
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file).stream()
+					.filter(event -> event.getEventType().getName().equals(name))
+					.toList();
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testTicketCreated() throws Exception {
+		recording.start();
+		int ID = helpDesk.createTicket("A", "B", Priority.HIGH, "jfr1", "jfr2");
+
+		List<RecordedEvent> events = stop(TICKET_CREATED);
+		assertThat(events, hasSize(1));
+		RecordedEvent event = events.get(0);
+		assertThat(event.getInt("ticketID"), equalTo(ID));
+		assertThat(event.getString("priority"), equalTo("HIGH"));
+		assertThat(event.getString("technicianID"), equalTo("A05589"));
+		assertThat(event.getInt("tagCount"), equalTo(2));
+		assertThat(event.getDuration("routingTime").toNanos(),
+				lessThanOrEqualTo(event.getDuration().toNanos()));
+	}
+
+	@Test
+	public void testTicketTransitions() throws Exception {
+		recording.start();
+		int ID = helpDesk.createTicket("A", "B", Priority.HIGH);
+		helpDesk.getTicketByID(ID).resolve("Done.");
+
+		List<String> transitions = stop(TICKET_TRANSITION).stream()
+				.map(event -> event.getString("oldStatus") + "->" + event.getString("newStatus"))
+				.toList();
+		assertThat(transitions, contains
+				("null->CREATED", "CREATED->ASSIGNED", "ASSIGNED->RESOLVED"));
+	}
+
+	@Test
+	public void testTagMiss() throws Exception {
+		TagRegistry registry = new TagRegistry();
+		registry.getTag("jfr3");
+		recording.start();
+		registry.getTag("jfr3");
+		registry.getTag("JFR3");
+		registry.getTag("jfr4");
+
+		List<RecordedEvent> events = stop(TAG_MISS);
+		assertThat(events.stream().map(event -> event.getString("value")).toList(),
+				contains("JFR3", "jfr4"));
+		assertThat(events.stream().map(event -> event.getBoolean("created")).toList(),
+				contains(false, true));
+	}
+
+	@Test
+	public void testOperation() throws Exception {
+		InstrumentedHelpDesk instrumented = new InstrumentedHelpDesk(helpDesk);
+		instrumented.createTicket("A", "B", Priority.HIGH);
+		recording.start();
+		instrumented.getTicketsByStatus(Ticket.Status.ASSIGNED).count();
+		instrumented.getTicketByID(1);
+
+		List<RecordedEvent> events = stop(OPERATION);
+		assertThat(events.stream().map(event -> event.getString("operation")).toList(),
+				contains("GET_TICKETS_BY_STATUS", "GET_TICKET_BY_ID"));
+		assertThat(events.stream().map(event -> event.getLong("resultSize")).toList(),
+				contains(1L, 1L));
+	}
+}
@@ -4,7 +4,12 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static com.amica.help.TicketTest.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -14,6 +19,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import com.amica.help.Rollups.Bucket;
+import com.amica.help.Rollups.Granularity;
+import com.amica.help.Rollups.Measure;
 import com.amica.help.Ticket.Priority;
 import com.amica.help.Ticket.Status;
 
@@ -110,6 +118,76 @@ public class HelpDeskTest {
 			MatcherAssert.assertThat(ticket.getStatus(), equalTo(Status.ASSIGNED));
 		}
 		
+		@Test
+		public void testCreateTicket_Rejected() {
+			createTicket();
+			assertThrows(IllegalArgumentException.class, 
+					() -> helpDesk.createTicket(null, DESCRIPTION, PRIORITY));
+			int ID = createTicket();
+			MatcherAssert.assertThat(ID, equalTo(2));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(ID).getID(), equalTo(2));
+		}
+		
+		@Test
+		public void testCreateTicket_NullTag() {
+			assertThrows(IllegalArgumentException.class, () -> helpDesk.createTicket
+					(ORIGINATOR, DESCRIPTION, PRIORITY, "VPN", null));
+			MatcherAssert.assertThat(helpDesk.getTickets().count(), equalTo(0L));
+			MatcherAssert.assertThat(helpDesk.getTicketsByTechnician("A05589").count(), 
+					equalTo(0L));
+			
+			int ID = createTicket();
+			MatcherAssert.assertThat(ID, equalTo(1));
+			MatcherAssert.assertThat(helpDesk.getTicketsByTechnician("A05589").count(), 
+					equalTo(1L));
+		}
+		
+		@Test
+		public void testSnapshot_AfterRejectedCalls() {
+			createTicket();
+			assertThrows(IllegalArgumentException.class, 
+					() -> helpDesk.createTicket(null, DESCRIPTION, PRIORITY));
+			assertThrows(IllegalArgumentException.class, 
+					() -> helpDesk.reopenTicket(99, RESOLVE_REASON, PRIORITY));
+			int ID = createTicket();
+			
+			DeskSnapshot snapshot = helpDesk.snapshot();
+			MatcherAssert.assertThat(snapshot.getTicketCount(), equalTo(2));
+			MatcherAssert.assertThat(snapshot.getTicketByID(ID).ID(), equalTo(ID));
+			MatcherAssert.assertThat(helpDesk.getReport(Clock.parse("11/1/21 0:00"), 
+					Clock.parse("11/2/21 0:00")).getTicketCount(), equalTo(2));
+		}
+		
+		@Test
+		public void testSnapshot_ReopenedTags() {
+			int ID = createTicket();
+			helpDesk.getTicketByID(ID).resolve(RESOLVE_REASON);
+			int reopenedID = helpDesk.reopenTicket(ID, "Still broken.", PRIORITY);
+			helpDesk.getTicketByID(reopenedID).resolve(RESOLVE_REASON);
+			int reopenedAgainID = helpDesk.reopenTicket(reopenedID, "Still broken.", PRIORITY);
+			helpDesk.getTicketByID(ID).addTags("hardware");
+			
+			DeskSnapshot snapshot = helpDesk.snapshot();
+			for (int each : List.of(ID, reopenedID, reopenedAgainID)) {
+				MatcherAssert.assertThat(snapshot.getTicketByID(each).tags(), 
+						equalTo(helpDesk.getTicketByID(each).getTags().toList()));
+			}
+			MatcherAssert.assertThat(snapshot.getTicketByID(reopenedAgainID).tags(), 
+					contains(Tag.getTag("hardware")));
+		}
+		
+		@Test
+		public void testReopenTicket_Rejected() {
+			createTicket();
+			assertThrows(IllegalArgumentException.class, 
+					() -> helpDesk.reopenTicket(99, RESOLVE_REASON, PRIORITY));
+			assertThrows(IllegalArgumentException.class, 
+					() -> helpDesk.reopenTicket(1, null, PRIORITY));
+			int ID = createTicket();
+			MatcherAssert.assertThat(ID, equalTo(2));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(ID).getID(), equalTo(2));
+		}
+		
 		@Test
 		public void testAssignment1() {
 			int ID = createTicket();
@@ -135,6 +213,289 @@ public class HelpDeskTest {
 			MatcherAssert.assertThat(ticket.getTechnician().getName(), equalTo(TECH1));
 		}
 		
+		@Test
+		public void testSkillRouting() {
+			helpDesk.addSkills("A17440", "VPN");
+			helpDesk.addSkills("A20265", "VPN", "laptop");
+			
+			int ID = helpDesk.createTicket(ORIGINATOR, DESCRIPTION, PRIORITY, "vpn");
+			MatcherAssert.assertThat(helpDesk.getTicketByID(ID)
+					.getTechnician().getName(), equalTo(TECH3));
+			ID = helpDesk.createTicket(ORIGINATOR, DESCRIPTION, PRIORITY, "vpn");
+			MatcherAssert.assertThat(helpDesk.getTicketByID(ID)
+					.getTechnician().getName(), equalTo(TECH4));
+			ID = helpDesk.createTicket(ORIGINATOR, DESCRIPTION, PRIORITY, "VPN");
+			MatcherAssert.assertThat(helpDesk.getTicketByID(ID)
+					.getTechnician().getName(), equalTo(TECH3));
+			ID = helpDesk.createTicket(ORIGINATOR, DESCRIPTION, PRIORITY, "audio");
+			MatcherAssert.assertThat(helpDesk.getTicketByID(ID)
+					.getTechnician().getName(), equalTo(TECH1));
+		}
+		
+		@Test
+		public void testReassignTickets() {
+			for (int i = 0; i < 8; ++i) {
+				createTicket();
+			}
+			helpDesk.getTicketByID(2).wait(WAIT_REASON);
+			
+			MatcherAssert.assertThat(helpDesk.reassignTickets("A12312", "A05589"), equalTo(2));
+			MatcherAssert.assertThat(helpDesk.getTechnicianByID("A12312")
+					.getActiveTicketCount(), equalTo(0));
+			MatcherAssert.assertThat(helpDesk.getTechnicianByID("A05589")
+					.getActiveTicketCount(), equalTo(4));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(2).getStatus(), 
+					equalTo(Status.WAITING));
+			MatcherAssert.assertThat(helpDesk.getWorkload("A05589", Status.WAITING), equalTo(1));
+			MatcherAssert.assertThat(helpDesk.getWorkload("A12312", Status.ASSIGNED), equalTo(0));
+			MatcherAssert.assertThat(helpDesk.snapshot().getOpenTicketCount("A05589"), equalTo(4));
+			MatcherAssert.assertThat(helpDesk.getOpenTicketsPerTechnicianAsOf
+					(Clock.getTime()).get("A12312"), equalTo(0));
+			
+			int ID = createTicket();
+			MatcherAssert.assertThat(helpDesk.getTicketByID(ID)
+					.getTechnician().getName(), equalTo(TECH2));
+		}
+		
+		@Test
+		public void testRemoveTechnician() {
+			helpDesk.addSkills("A20265", "VPN");
+			for (int i = 0; i < 4; ++i) {
+				createTicket();
+			}
+			helpDesk.getTicketByID(1).addTags("VPN");
+			
+			helpDesk.removeTechnician("A05589");
+			MatcherAssert.assertThat(helpDesk.getTechnicianByID("A05589"), nullValue());
+			MatcherAssert.assertThat(helpDesk.getTechnicians().size(), equalTo(3));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(1)
+					.getTechnician().getName(), equalTo(TECH4));
+			MatcherAssert.assertThat(helpDesk.getWorkload("A20265", Status.ASSIGNED), equalTo(2));
+			
+			for (int i = 0; i < 3; ++i) {
+				int ID = createTicket();
+				MatcherAssert.assertThat(helpDesk.getTicketByID(ID)
+						.getTechnician().getName(), not(equalTo(TECH1)));
+			}
+		}
+		
+		@Test
+		public void testRemoveTechnician_Snapshot() {
+			createTicket();
+			helpDesk.removeTechnician("A05589");
+			DeskSnapshot snapshot = helpDesk.snapshot();
+			MatcherAssert.assertThat(snapshot.getTechnicianIDs().toList(), 
+					contains("A12312", "A17440", "A20265"));
+			MatcherAssert.assertThat(snapshot.getOpenTicketCount("A05589"), equalTo(0));
+			MatcherAssert.assertThat(snapshot.getOpenTicketCount("A12312"), equalTo(1));
+		}
+		
+		@Test
+		public void testRemoveTechnician_Reopen() {
+			helpDesk.addSkills("A20265", "VPN");
+			int ID = createTicket();
+			Ticket ticket = helpDesk.getTicketByID(ID);
+			ticket.addTags("VPN");
+			ticket.resolve(RESOLVE_REASON);
+			helpDesk.removeTechnician("A05589");
+			
+			int reopened = helpDesk.reopenTicket(ID, RESOLVE_REASON, PRIORITY);
+			Technician technician = helpDesk.getTicketByID(reopened).getTechnician();
+			MatcherAssert.assertThat(technician.getID(), equalTo("A20265"));
+			MatcherAssert.assertThat(helpDesk.getWorkload("A20265", Status.ASSIGNED), 
+					equalTo(1));
+		}
+		
+		@Test
+		public void testRebalance() {
+			for (int i = 0; i < 10; ++i) {
+				createTicket();
+			}
+			helpDesk.reassignTickets("A12312", "A05589");
+			helpDesk.reassignTickets("A17440", "A05589");
+			
+			MatcherAssert.assertThat(helpDesk.rebalance(), equalTo(5));
+			int[] loads = helpDesk.getTechnicians().stream()
+					.mapToInt(Technician::getActiveTicketCount).toArray();
+			MatcherAssert.assertThat(Arrays.stream(loads).sum(), equalTo(10));
+			MatcherAssert.assertThat(Arrays.stream(loads).max().getAsInt() - 
+					Arrays.stream(loads).min().getAsInt(), lessThanOrEqualTo(1));
+			for (Technician technician : helpDesk.getTechnicians()) {
+				MatcherAssert.assertThat(helpDesk.getWorkload(technician.getID(), 
+						Status.ASSIGNED), equalTo(technician.getActiveTicketCount()));
+			}
+			MatcherAssert.assertThat(helpDesk.rebalance(), equalTo(0));
+		}
+		
+		@Test
+		public void testDuplicates_Link() {
+			final String outage = "The VPN is down and I can't connect to anything.";
+			helpDesk.setDuplicatePolicy(HelpDesk.DuplicatePolicy.LINK);
+			int first = helpDesk.createTicket(ORIGINATOR, outage, PRIORITY);
+			createTicket();
+			int second = helpDesk.createTicket(ORIGINATOR, outage, PRIORITY);
+			
+			MatcherAssert.assertThat(helpDesk.getDuplicateOf(second).getID(), equalTo(first));
+			MatcherAssert.assertThat(helpDesk.getDuplicateOf(first), nullValue());
+			MatcherAssert.assertThat(helpDesk.getTicketByID(second)
+					.getTechnician().getName(), equalTo(TECH3));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(second).getHistory()
+					.reduce((a, b) -> b).get().getNote(), 
+					equalTo("Possible duplicate of ticket " + first + "."));
+		}
+		
+		@Test
+		public void testDuplicates_CoAssign() {
+			final String outage = "The VPN is down and I can't connect to anything.";
+			helpDesk.setDuplicatePolicy(HelpDesk.DuplicatePolicy.CO_ASSIGN);
+			int first = helpDesk.createTicket(ORIGINATOR, outage, PRIORITY);
+			createTicket();
+			int second = helpDesk.createTicket(ORIGINATOR, outage, PRIORITY, "VPN");
+			MatcherAssert.assertThat(helpDesk.getTicketByID(second).getTechnician(),
+					equalTo(helpDesk.getTicketByID(first).getTechnician()));
+			MatcherAssert.assertThat(helpDesk.findDuplicates(outage).size(), equalTo(2));
+			
+			helpDesk.getTicketByID(first).resolve(RESOLVE_REASON);
+			helpDesk.getTicketByID(second).resolve(RESOLVE_REASON);
+			int third = helpDesk.createTicket(ORIGINATOR, outage, PRIORITY);
+			MatcherAssert.assertThat(helpDesk.getDuplicateOf(third), nullValue());
+		}
+		
+		@Test
+		public void testEscalation() {
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.HIGH);
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.MEDIUM);
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.LOW);
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.HIGH);
+			helpDesk.reassignTickets("A12312", "A05589");
+			helpDesk.reassignTickets("A17440", "A05589");
+			Ticket low = helpDesk.getTicketByID(3);
+			
+			low.escalate("The whole floor is affected.");
+			low.escalate("Still the whole floor.");
+			MatcherAssert.assertThat(low.getPriority(), equalTo(Priority.HIGH));
+			low.escalate("And the next floor.");
+			
+			MatcherAssert.assertThat(helpDesk.getTickets().map(Ticket::getID).toList(),
+					contains(3, 1, 4, 2));
+			Technician technician = helpDesk.getTechnicianByID("A05589");
+			MatcherAssert.assertThat(technician.getActiveTickets()
+					.map(Ticket::getID).toList(), contains(3, 1, 2));
+			MatcherAssert.assertThat(technician.getNextTicket(), equalTo(low));
+			MatcherAssert.assertThat(helpDesk.getWorkload(Status.ASSIGNED, Priority.LOW), 
+					equalTo(0));
+			MatcherAssert.assertThat(helpDesk.getWorkload(Status.ASSIGNED, Priority.URGENT), 
+					equalTo(1));
+			MatcherAssert.assertThat(helpDesk.snapshot().getTicketByID(3).priority(),
+					equalTo(Priority.URGENT));
+			
+			low.resolve(RESOLVE_REASON);
+			MatcherAssert.assertThat(technician.getActiveTicketCount(), equalTo(2));
+			MatcherAssert.assertThat(helpDesk.getTickets().count(), equalTo(4L));
+		}
+		
+		@Test
+		public void testEscalationRules() {
+			helpDesk.addEscalationRule(Priority.LOW, 60 * 60 * 1000);
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.LOW);
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.MEDIUM);
+			Clock.setTime("11/1/21 8:30");
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.LOW);
+			helpDesk.createTicket(ORIGINATOR, DESCRIPTION, Priority.LOW);
+			helpDesk.getTicketByID(4).resolve(RESOLVE_REASON);
+			
+			Clock.setTime("11/1/21 8:59");
+			MatcherAssert.assertThat(helpDesk.runEscalations(), equalTo(0));
+			Clock.setTime("11/1/21 9:00");
+			MatcherAssert.assertThat(helpDesk.runEscalations(), equalTo(1));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(1).getPriority(), 
+					equalTo(Priority.MEDIUM));
+			Clock.setTime("11/1/21 9:45");
+			MatcherAssert.assertThat(helpDesk.runEscalations(), equalTo(1));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(3).getPriority(), 
+					equalTo(Priority.MEDIUM));
+			
+			helpDesk.addEscalationRule(Priority.MEDIUM, 2 * 60 * 60 * 1000);
+			Clock.setTime("11/1/21 10:00");
+			MatcherAssert.assertThat(helpDesk.runEscalations(), equalTo(1));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(2).getPriority(), 
+					equalTo(Priority.HIGH));
+			Clock.setTime("11/1/21 11:00");
+			MatcherAssert.assertThat(helpDesk.runEscalations(), equalTo(1));
+			MatcherAssert.assertThat(helpDesk.getTicketByID(1).getPriority(), 
+					equalTo(Priority.HIGH));
+		}
+		
+		/**
+		 * For every mix of loads up to three tickets per technician, 
+		 * the count that rebalance returns should be the number of tickets 
+		 * that actually changed hands.
+		 */
+		@Test
+		public void testRebalance_CountsOnlyMoves() {
+			String[] techIDs = { "A05589", "A12312", "A17440", "A20265" };
+			for (int mix = 0; mix < 256; ++mix) {
+				HelpDesk desk = new HelpDesk();
+				for (String techID : techIDs) {
+					desk.addTechnician(techID, techID, 0);
+				}
+				for (int t = 0; t < techIDs.length; ++t) {
+					Technician technician = desk.getTechnicianByID(techIDs[t]);
+					for (int i = 0; i < (mix >> (2 * t) & 3); ++i) {
+						desk.getTicketByID(desk.createTicket(ORIGINATOR, DESCRIPTION, PRIORITY))
+							.reassign(technician);
+					}
+				}
+				
+				List<Technician> before = desk.getTickets()
+						.sorted(Comparator.comparingInt(Ticket::getID))
+						.map(Ticket::getTechnician).toList();
+				int moved = desk.rebalance();
+				List<Technician> after = desk.getTickets()
+						.sorted(Comparator.comparingInt(Ticket::getID))
+						.map(Ticket::getTechnician).toList();
+				int changed = 0;
+				for (int i = 0; i < before.size(); ++i) {
+					changed += before.get(i) != after.get(i) ? 1 : 0;
+				}
+				MatcherAssert.assertThat("Mix " + mix, moved, equalTo(changed));
+			}
+		}
+		
+		/**
+		 * Whenever the desk hears that a ticket changed hands, the new
+		 * technician should already hold it as active and the old one
+		 * should already have let it go, on every path that moves tickets.
+		 */
+		@Test
+		public void testMoves_ActiveTicketsUpdatedBeforeNotification() {
+			List<String> violations = new ArrayList<>();
+			HelpDesk desk = new HelpDesk() {
+				@Override
+				public void ticketChanged(Ticket ticket, Technician oldTechnician,
+						Status oldStatus, Priority oldPriority) {
+					Technician technician = ticket.getTechnician();
+					if (oldTechnician != null && oldTechnician != technician && 
+							(technician.getActiveTickets().noneMatch(t -> t == ticket) ||
+							oldTechnician.getActiveTickets().anyMatch(t -> t == ticket))) {
+						violations.add("Ticket " + ticket.getID());
+					}
+					super.ticketChanged(ticket, oldTechnician, oldStatus, oldPriority);
+				}
+			};
+			desk.addTechnician("A05589", TECH1, 55491);
+			desk.addTechnician("A12312", TECH2, 12399);
+			desk.addTechnician("A17440", TECH3, 34002);
+			for (int i = 0; i < 9; ++i) {
+				desk.createTicket(ORIGINATOR, DESCRIPTION, PRIORITY);
+			}
+			
+			desk.reassignTickets("A12312", "A05589");
+			desk.rebalance();
+			desk.removeTechnician("A17440");
+			MatcherAssert.assertThat(violations, empty());
+		}
+		
 		/**
 		 * This final nested class sets up the master scenario, which supports
 		 * the original 9 test cases from the test program.
@@ -527,6 +888,285 @@ public class HelpDeskTest {
 				assertEqual(helpDesk.getLatestActivity(10).filter(e -> e.getTicketID() == 5).count(),
 						3L, "3 of the events in the latest 10 should relate to ticket 5; was %d.");
 			}
+			
+			/**
+			 * Tests that paging through the master set with a cursor visits
+			 * every ticket once, in priority order.
+			 */
+			@Test
+			public void test10_TicketPages() {
+				List<Integer> IDs = new ArrayList<>();
+				Ticket last = null;
+				List<Ticket> page;
+				do {
+					page = helpDesk.getTicketPage(last, 4).toList();
+					page.stream().map(Ticket::getID).forEach(IDs::add);
+					last = page.isEmpty() ? null : page.get(page.size() - 1);
+				} while (page.size() == 4);
+				
+				assertEqual(IDs, helpDesk.getTickets().map(Ticket::getID).toList(), 
+						"Paged tickets should match the master set, were %s.");
+				assertEqual(helpDesk.getTicketPage(Priority.HIGH, 2, 3)
+						.map(Ticket::getID).toList(), List.of(5, 8, 9),
+						"Page after HIGH/2 should be 5, 8, 9; was %s.");
+			}
+			
+			/**
+			 * Tests that paging through events with a cursor visits every
+			 * event once, in chronological order.
+			 */
+			@Test
+			public void test11_EventPages() {
+				List<Event> events = new ArrayList<>();
+				List<Event> page = helpDesk.getEventPage(null, 10).toList();
+				while (!page.isEmpty()) {
+					events.addAll(page);
+					Event last = page.get(page.size() - 1);
+					page = helpDesk.getEventPage
+							(last.getTimestamp(), last.getSequence(), 10).toList();
+				}
+				
+				assertEqual((long) events.size(), helpDesk.getTickets()
+						.flatMap(Ticket::getHistory).count(),
+						"Paged events should include all events; count was %s.");
+				for (int i = 1; i < events.size(); ++i) {
+					assertThat(events.get(i - 1).compareTo(events.get(i)) < 0,
+							"Paged events should be in chronological order.");
+				}
+			}
+			
+			/**
+			 * Tests that analytics mode produces the same answers as the
+			 * default, sequential mode.
+			 */
+			@Test
+			public void test12_ParallelAnalytics() {
+				int average = helpDesk.getAverageMinutesToResolve();
+				Map<String,Double> byTech = helpDesk.getAverageMinutesToResolvePerTechnician();
+				List<Integer> byText = helpDesk.getTicketsByText("access")
+						.map(Ticket::getID).toList();
+				
+				helpDesk.setParallelAnalytics(true);
+				assertEqual(helpDesk.getAverageMinutesToResolve(), average,
+						"Parallel average should match sequential, was %s.");
+				assertEqual(helpDesk.getAverageMinutesToResolvePerTechnician(), byTech,
+						"Parallel per-technician averages should match sequential, were %s.");
+				assertEqual(helpDesk.getTicketsByText("access").map(Ticket::getID).toList(),
+						byText, "Parallel text search should match sequential, was %s.");
+			}
+			
+			/**
+			 * Tests that the live workload counts agree with counts taken
+			 * by streaming each technician's tickets.
+			 */
+			@Test
+			public void test13_Workload() {
+				for (Technician technician : helpDesk.getTechnicians()) {
+					for (Status status : Status.values()) {
+						for (Priority priority : Priority.values()) {
+							long expected = helpDesk.getTicketsByTechnician(technician.getID())
+								.filter(t -> t.getStatus() == status && t.getPriority() == priority)
+								.count();
+							assertEqual((long) helpDesk.getWorkload
+									(technician.getID(), status, priority), expected,
+									"Workload count is wrong: %s.");
+						}
+					}
+				}
+				assertEqual(helpDesk.getWorkload("A17440", Status.WAITING), 1,
+						"Caelem should have 1 waiting ticket, had %s.");
+				assertEqual(helpDesk.getWorkload(Status.RESOLVED, Priority.HIGH), 3,
+						"There should be 3 resolved HIGH tickets, were %s.");
+			}
+			
+			/**
+			 * Tests point-in-time queries against the scenario's timeline.
+			 */
+			@Test
+			public void test14_AsOf() {
+				assertEqual(helpDesk.getStatusAsOf(2, Clock.parse("11/1/21 8:37")), 
+						Status.WAITING, "Ticket 2 should have been WAITING, was %s.");
+				assertEqual(helpDesk.getStatusAsOf(2, Clock.parse("11/1/21 14:15")), 
+						Status.ASSIGNED, "Ticket 2 should have been ASSIGNED, was %s.");
+				assertThat(helpDesk.getStatusAsOf(5, Clock.parse("11/1/21 8:00")) == null,
+						"Ticket 5 shouldn't have existed yet.");
+				
+				assertEqual(helpDesk.getBacklogAsOf(Clock.parse("11/1/21 9:06")), 4,
+						"There should have been 4 open tickets, were %s.");
+				assertEqual(helpDesk.getBacklogAsOf(Clock.parse("11/1/21 12:00")), 3,
+						"There should have been 3 open tickets, were %s.");
+				assertEqual((long) helpDesk.getBacklogAsOf(Clock.getTime()), 
+						helpDesk.getTicketsByNotStatus(Status.RESOLVED).count(),
+						"Current backlog should match open tickets, was %s.");
+				
+				assertEqual(helpDesk.getOpenTicketsPerTechnicianAsOf
+						(Clock.parse("11/1/21 12:00")), Map.of("A05589", 1, 
+								"A12312", 1, "A17440", 1, "A20265", 0),
+						"Open tickets per technician are wrong: %s.");
+			}
+			
+			/**
+			 * Tests that a snapshot holds still while the desk changes.
+			 */
+			@Test
+			public void test15_Snapshot() {
+				DeskSnapshot snapshot = helpDesk.snapshot();
+				int backlog = snapshot.getBacklog();
+				int resolved = snapshot.getCount(Status.RESOLVED);
+				assertEqual(backlog, (int) helpDesk.getTicketsByNotStatus
+						(Status.RESOLVED).count(), "Backlog should be %s.");
+				assertEqual(snapshot.getTicketByID(2).status(), Status.ASSIGNED,
+						"Ticket 2 should be ASSIGNED, was %s.");
+				int open = snapshot.getOpenTicketCount("A12312");
+				assertEqual(open, helpDesk.getTechnicianByID("A12312")
+						.getActiveTicketCount(), "Technician should hold %s tickets.");
+				
+				Clock.setTime("11/3/21 14:00");
+				helpDesk.getTicketByID(2).resolve("Fixed it.");
+				helpDesk.getTicketByID(7).addTags("hardware");
+				helpDesk.createTicket("A10001", "Another problem.", Priority.LOW);
+				
+				assertEqual(snapshot.getBacklog(), backlog, "Backlog should still be %s.");
+				assertEqual(snapshot.getCount(Status.RESOLVED), resolved,
+						"Resolved count should still be %s.");
+				assertEqual(snapshot.getTicketByID(2).status(), Status.ASSIGNED,
+						"Ticket 2 should still be ASSIGNED, was %s.");
+				assertThat(snapshot.getTicketByID(15) == null,
+						"Ticket 15 shouldn't be in the old snapshot.");
+				assertThat(snapshot.getTicketByID(7).tags().stream()
+						.noneMatch(tag -> tag.getValue().equals("hardware")),
+						"Ticket 7 shouldn't have the new tag in the old snapshot.");
+				assertEqual(snapshot.getOpenTicketCount("A12312"), open,
+						"Technician should still hold %s tickets.");
+				
+				DeskSnapshot latest = helpDesk.snapshot();
+				assertEqual(latest.getTicketByID(2).status(), Status.RESOLVED,
+						"Ticket 2 should now be RESOLVED, was %s.");
+				assertEqual(latest.getBacklog(), backlog, "Backlog should be %s.");
+				assertEqual(latest.getTicketCount(), 15, "There should be %s tickets.");
+			}
+			
+			/**
+			 * Tests tag completion, including through synonyms.
+			 */
+			@Test
+			public void test16_TagCompletion() {
+				assertEqual(helpDesk.completeTag("re", 5).get(0).getValue(), "remoting",
+						"First completion should be %s.");
+				assertEqual(helpDesk.completeTag("RD", 5).get(0).getValue(), "remoting",
+						"Completion through a synonym should be %s.");
+				assertEqual(helpDesk.completeTag("perm", 5).get(0).getValue(), "permissions",
+						"First completion should be %s.");
+			}
+			
+			/**
+			 * Tests ranked search over descriptions and notes.
+			 */
+			@Test
+			public void test17_RankedSearch() {
+				List<Integer> IDs = helpDesk.searchTickets("permission", 5).stream()
+						.map(Ticket::getID).toList();
+				assertEqual(IDs.size(), 2, "There should be %s results.");
+				assertThat(IDs.containsAll(List.of(3, 6)), 
+						"Tickets 3 and 6 should match, but found " + IDs);
+				
+				// Both mention remote desktop once; ticket 2 is higher priority:
+				IDs = helpDesk.searchTickets("remote desktop", 2).stream()
+						.map(Ticket::getID).toList();
+				assertEqual(IDs, List.of(2, 4), "Results should be %s.");
+			}
+			
+			/**
+			 * Tests the columnar report against the scenario, and against
+			 * the aggregates that we compute from the tickets themselves.
+			 */
+			@Test
+			public void test18_Report() {
+				Clock.setTime("11/3/21 14:01");
+				int reopened = helpDesk.reopenTicket(6, "Still can't connect.", Priority.MEDIUM);
+				Clock.setTime("11/3/21 14:12");
+				helpDesk.reopenTicket(reopened, "Still no.", Priority.HIGH);
+				
+				TicketReport report = helpDesk.getReport
+						(Clock.parse("11/1/21 0:00"), Clock.parse("11/4/21 0:00"));
+				assertEqual(report.getTicketCount(), 16, "There should be %s tickets.");
+				assertEqual(report.getCreatedCount(Priority.HIGH), 8, 
+						"There should be %s HIGH tickets.");
+				assertEqual(report.getCreatedCount(Priority.URGENT), 2, 
+						"There should be %s URGENT tickets.");
+				assertEqual(report.getReopenedCount(), 2, "There should be %s reopened.");
+				
+				int resolved = 0;
+				double minutes = 0;
+				for (Priority priority : Priority.values()) {
+					int count = report.getResolvedCount(priority);
+					resolved += count;
+					if (count != 0) {
+						minutes += report.getAverageMinutesToResolve(priority) * count;
+					}
+				}
+				assertEqual((int) (minutes / resolved), helpDesk.getAverageMinutesToResolve(),
+						"Average minutes to resolve should be %s.");
+				assertEqual(Arrays.stream(report.getResolutionHistogram(Priority.MEDIUM))
+						.boxed().toList(), List.of(1, 0, 0, 1, 1, 0), 
+						"MEDIUM histogram should be %s.");
+				
+				int[] perDay = report.getCreatedPerDay("A05589");
+				assertEqual(perDay.length, 3, "There should be %s days.");
+				assertEqual(Arrays.stream(perDay).sum(), 
+						(int) helpDesk.getTicketsByTechnician("A05589").count(),
+						"Technician should have %s tickets.");
+				
+				report = helpDesk.getReport
+						(Clock.parse("11/2/21 0:00"), Clock.parse("11/3/21 0:00"));
+				assertEqual(report.getTicketCount(), 5, "There should be %s tickets.");
+			}
+			
+			/**
+			 * Checks the rollups against what we can find from the tickets
+			 * and their histories.
+			 */
+			@Test
+			public void test19_Rollups() {
+				Clock.setTime("11/3/21 14:01");
+				helpDesk.reopenTicket(6, "Still can't connect.", Priority.MEDIUM);
+				
+				Rollups rollups = helpDesk.getRollups();
+				long from = Clock.parse("11/1/21 0:00");
+				long to = Clock.parse("11/4/21 0:00");
+				Collection<Bucket> days = rollups.getBuckets(Granularity.DAILY, from, to);
+				Collection<Bucket> hours = rollups.getBuckets(Granularity.HOURLY, from, to);
+				for (Measure measure : Measure.values()) {
+					assertEqual(hours.stream().mapToLong(b -> b.getTotal(measure)).sum(),
+							days.stream().mapToLong(b -> b.getTotal(measure)).sum(),
+							"Hourly total of " + measure + " should be %s.");
+				}
+				
+				assertEqual(rollups.getBucket(Granularity.DAILY, Clock.parse("11/2/21 12:00"))
+						.getTotal(Measure.CREATED), 5L, "There should be %s created.");
+				assertEqual(days.stream().mapToLong(b -> b.getTotal(Measure.CREATED)).sum(),
+						15L, "There should be %s created.");
+				assertEqual(days.stream().mapToLong(b -> b.getTotal(Measure.REOPENED)).sum(),
+						1L, "There should be %s reopened.");
+				assertEqual(days.stream().mapToLong(b -> b.getTotal(Measure.WAITING)).sum(),
+						helpDesk.getTickets().flatMap(Ticket::getOwnHistory)
+							.filter(e -> e.getNewStatus() == Status.WAITING).count(),
+						"There should be %s put on hold.");
+				
+				long resolved = days.stream()
+						.mapToLong(b -> b.getTotal(Measure.RESOLVED)).sum();
+				long minutes = days.stream()
+						.mapToLong(b -> b.getTotal(Measure.MINUTES_TO_RESOLVE)).sum();
+				assertEqual(resolved, helpDesk.getTicketsByStatus(Status.RESOLVED).count(),
+						"There should be %s resolved.");
+				assertEqual((int) (minutes / (double) resolved), 
+						helpDesk.getAverageMinutesToResolve(), 
+						"Average minutes to resolve should be %s.");
+				assertEqual(days.stream().mapToLong(b -> b.getTotal(Measure.RESOLVED, "A05589"))
+						.sum(), helpDesk.getTicketsByTechnician("A05589")
+							.filter(t -> t.getStatus() == Status.RESOLVED).count(),
+						"Technician should have resolved %s.");
+			}
 		}
 	}
 }
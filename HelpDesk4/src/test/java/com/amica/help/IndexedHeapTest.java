@@ -0,0 +1,97 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the {@link IndexedHeap} class.
+ */
+public class IndexedHeapTest {
+
+	private Map<String,Integer> keys;
+	private IndexedHeap<String> heap;
+	
+	@BeforeEach
+	public void setUp() {
+		keys = new HashMap<>();
+		heap = new IndexedHeap<>(Comparator.comparing(keys::get));
+	}
+	
+	private void add(String item, int key) {
+		keys.put(item, key);
+		heap.add(item);
+	}
+	
+	@Test
+	public void testEmpty() {
+		assertThat(heap.isEmpty(), equalTo(true));
+		assertThat(heap.peek(), nullValue());
+		assertThat(heap.poll(), nullValue());
+	}
+	
+	@Test
+	public void testOrder() {
+		add("C", 3);
+		add("A", 1);
+		add("B", 2);
+		assertThat(heap.add("A"), equalTo(false));
+		assertThat(heap.size(), equalTo(3));
+		assertThat(heap.poll(), equalTo("A"));
+		assertThat(heap.poll(), equalTo("B"));
+		assertThat(heap.poll(), equalTo("C"));
+	}
+	
+	@Test
+	public void testUpdate() {
+		add("A", 1);
+		add("B", 2);
+		add("C", 3);
+		keys.put("A", 4);
+		heap.update("A");
+		assertThat(heap.peek(), equalTo("B"));
+		keys.put("C", 0);
+		heap.update("C");
+		assertThat(heap.peek(), equalTo("C"));
+	}
+	
+	@Test
+	public void testRemove() {
+		add("A", 1);
+		add("B", 2);
+		add("C", 3);
+		assertThat(heap.remove("A"), equalTo(true));
+		assertThat(heap.remove("A"), equalTo(false));
+		assertThat(heap.contains("A"), equalTo(false));
+		assertThat(heap.poll(), equalTo("B"));
+	}
+	
+	@Test
+	public void testRandomized() {
+		Random random = new Random(42);
+		for (int i = 0; i < 200; ++i) {
+			add("" + i, random.nextInt(1000));
+		}
+		for (int i = 0; i < 100; ++i) {
+			String item = "" + random.nextInt(200);
+			keys.put(item, random.nextInt(1000));
+			heap.update(item);
+			heap.remove("" + random.nextInt(200));
+		}
+		
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty()) {
+			polled.add(keys.get(heap.poll()));
+		}
+		assertThat(polled, equalTo(polled.stream().sorted().toList()));
+	}
+}
@@ -0,0 +1,76 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.stream.Stream;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.InstrumentedHelpDesk.Operation;
+import com.amica.help.Ticket.Priority;
+import com.amica.help.Ticket.Status;
+
+/**
+ * Unit test for the {@link InstrumentedHelpDesk} decorator.
+ */
+public class InstrumentedHelpDeskTest {
+
+	private HelpDeskAPI target;
+	private InstrumentedHelpDesk helpDesk;
+	
+	@BeforeEach
+	public void setUp() {
+		target = mock(HelpDeskAPI.class);
+		helpDesk = new InstrumentedHelpDesk(target);
+	}
+	
+	@Test
+	public void testDelegation() {
+		when(target.createTicket("A", "B", Priority.LOW)).thenReturn(42);
+		assertThat(helpDesk.createTicket("A", "B", Priority.LOW), equalTo(42));
+		verify(target).createTicket("A", "B", Priority.LOW);
+		assertThat(helpDesk.getMetrics(Operation.CREATE_TICKET).getCount(), equalTo(1L));
+	}
+	
+	@Test
+	public void testResultSizes() {
+		Ticket ticket = mock(Ticket.class);
+		when(target.getTicketsByStatus(Status.ASSIGNED))
+			.thenReturn(Stream.of(ticket, ticket, ticket));
+		
+		assertThat(helpDesk.getTicketsByStatus(Status.ASSIGNED).count(), equalTo(3L));
+		OperationMetrics metrics = helpDesk.getMetrics(Operation.GET_TICKETS_BY_STATUS);
+		assertThat(metrics.getCount(), equalTo(1L));
+		assertThat(metrics.getMaxResultSize(), equalTo(3L));
+	}
+	
+	@Test
+	public void testSnapshot() {
+		helpDesk.getTicketByID(1);
+		String snapshot = helpDesk.getSnapshot();
+		assertThat(snapshot, containsString("GET_TICKET_BY_ID"));
+		assertThat(snapshot, not(containsString("CREATE_TICKET")));
+	}
+	
+	@Test
+	public void testMBeans() throws Exception {
+		helpDesk.registerMBeans("test");
+		try {
+			helpDesk.getTicketByID(1);
+			ObjectName name = new ObjectName
+					("com.amica.help:type=HelpDesk,name=\"test\",operation=GET_TICKET_BY_ID");
+			assertThat(ManagementFactory.getPlatformMBeanServer()
+					.getAttribute(name, "Count"), equalTo(1L));
+		} finally {
+			helpDesk.unregisterMBeans();
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the {@link LatencyHistogram} class.
+ */
+public class LatencyHistogramTest {
+
+	private LatencyHistogram histogram;
+	
+	@BeforeEach
+	public void setUp() {
+		histogram = new LatencyHistogram();
+	}
+	
+	@Test
+	public void testEmpty() {
+		assertThat(histogram.getCount(), equalTo(0L));
+		assertThat(histogram.getPercentile(0.99), equalTo(0L));
+		assertThat(histogram.getMean(), equalTo(0.0));
+	}
+	
+	@Test
+	public void testBuckets() {
+		for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 1000, 123456789 }) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			assertThat(LatencyHistogram.highestValueIn(bucket), 
+					greaterThanOrEqualTo(value));
+			if (bucket > 0) {
+				assertThat(LatencyHistogram.highestValueIn(bucket - 1), 
+						lessThan(value));
+			}
+		}
+	}
+	
+	@Test
+	public void testPercentiles() {
+		for (int value = 1; value <= 1000; ++value) {
+			histogram.record(value);
+		}
+		assertThat(histogram.getCount(), equalTo(1000L));
+		assertThat(histogram.getMax(), equalTo(1000L));
+		assertThat(histogram.getMean(), closeTo(500.5, 0.001));
+		assertThat((double) histogram.getPercentile(0.5), closeTo(500, 500 * 0.125));
+		assertThat((double) histogram.getPercentile(0.99), closeTo(990, 990 * 0.125));
+		assertThat(histogram.getPercentile(1.0), equalTo(1000L));
+	}
+}
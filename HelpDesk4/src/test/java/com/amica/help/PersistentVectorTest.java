@@ -0,0 +1,68 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the {@link PersistentVector} class.
+ */
+public class PersistentVectorTest {
+
+	@Test
+	public void testEmpty() {
+		PersistentVector<String> vector = PersistentVector.empty();
+		assertThat(vector.size(), equalTo(0));
+		assertThat(vector.isEmpty(), equalTo(true));
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.get(0));
+	}
+	
+	@Test
+	public void testAddAndGetAcrossLevels() {
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		for (int i = 0; i < 40000; ++i) {
+			vector = vector.add(i);
+		}
+		assertThat(vector.size(), equalTo(40000));
+		for (int i = 0; i < 40000; i += 7) {
+			assertThat(vector.get(i), equalTo(i));
+		}
+		assertThat(vector.stream().mapToLong(Integer::longValue).sum(),
+				equalTo(40000L * 39999 / 2));
+	}
+	
+	@Test
+	public void testOldVersionsUnchanged() {
+		List<PersistentVector<Integer>> versions = new ArrayList<>();
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		for (int i = 0; i < 100; ++i) {
+			vector = vector.add(i);
+		}
+		versions.add(vector);
+		for (int i = 0; i < 100; i += 3) {
+			vector = vector.set(i, -i);
+			versions.add(vector);
+		}
+		vector = vector.add(100);
+		
+		PersistentVector<Integer> original = versions.get(0);
+		assertThat(original.size(), equalTo(100));
+		assertThat(original.get(99), equalTo(99));
+		assertThat(versions.get(1).get(0), equalTo(0));
+		assertThat(versions.get(2).get(3), equalTo(-3));
+		assertThat(versions.get(2).get(6), equalTo(6));
+		assertThat(vector.get(99), equalTo(-99));
+		assertThat(vector.get(100), equalTo(100));
+	}
+	
+	@Test
+	public void testSetOutOfBounds() {
+		PersistentVector<String> vector = PersistentVector.<String>empty().add("A");
+		assertThrows(IndexOutOfBoundsException.class, () -> vector.set(1, "B"));
+	}
+}
@@ -0,0 +1,90 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Rollups.Bucket;
+import com.amica.help.Rollups.Granularity;
+import com.amica.help.Rollups.Measure;
+import com.amica.help.Ticket.Priority;
+
+/**
+ * Unit test for the {@link Rollups} class.
+ */
+public class RollupsTest {
+
+	public static final String TECH1 = "A05589";
+	public static final String TECH2 = "A12312";
+	
+	private Rollups rollups;
+	
+	@BeforeEach
+	public void setUp() {
+		rollups = new Rollups();
+	}
+	
+	@Test
+	public void testStartOf() {
+		long time = Clock.parse("11/2/21 0:30");
+		assertThat(Rollups.startOf(Granularity.HOURLY, time),
+				equalTo(Clock.parse("11/2/21 0:00")));
+		assertThat(Rollups.startOf(Granularity.DAILY, time),
+				equalTo(Clock.parse("11/2/21 0:00")));
+		assertThat(Rollups.startOf(Granularity.DAILY, Clock.parse("11/1/21 23:59")),
+				equalTo(Clock.parse("11/1/21 0:00")));
+	}
+	
+	@Test
+	public void testRecord() {
+		rollups.record(Clock.parse("11/1/21 8:10"), Measure.CREATED, null, Priority.HIGH, 1);
+		rollups.record(Clock.parse("11/1/21 8:50"), Measure.CREATED, null, Priority.LOW, 1);
+		rollups.record(Clock.parse("11/1/21 9:05"), Measure.RESOLVED, TECH1, Priority.HIGH, 1);
+		rollups.record(Clock.parse("11/1/21 9:05"), 
+				Measure.MINUTES_TO_RESOLVE, TECH1, Priority.HIGH, 55);
+		rollups.record(Clock.parse("11/2/21 9:05"), Measure.WAITING, TECH2, Priority.LOW, 1);
+		
+		Bucket hour = rollups.getBucket(Granularity.HOURLY, Clock.parse("11/1/21 8:00"));
+		assertThat(hour.getStart(), equalTo(Clock.parse("11/1/21 8:00")));
+		assertThat(hour.getEnd(), equalTo(Clock.parse("11/1/21 9:00")));
+		assertThat(hour.getTotal(Measure.CREATED), equalTo(2L));
+		assertThat(hour.get(Measure.CREATED, null, Priority.HIGH), equalTo(1L));
+		assertThat(hour.getTotal(Measure.RESOLVED), equalTo(0L));
+		
+		Bucket day = rollups.getBucket(Granularity.DAILY, Clock.parse("11/1/21 23:00"));
+		assertThat(day.getTotal(Measure.CREATED), equalTo(2L));
+		assertThat(day.getTotal(Measure.RESOLVED, TECH1), equalTo(1L));
+		assertThat(day.getTotal(Measure.MINUTES_TO_RESOLVE, Priority.HIGH), equalTo(55L));
+		assertThat(day.getTotal(Measure.WAITING), equalTo(0L));
+		assertThat(day.getTotal(Measure.RESOLVED, TECH2), equalTo(0L));
+		
+		assertThat(rollups.getBucket(Granularity.DAILY, Clock.parse("11/2/21 0:00"))
+				.get(Measure.WAITING, TECH2, Priority.LOW), equalTo(1L));
+	}
+	
+	@Test
+	public void testGetBucket_Empty() {
+		Bucket bucket = rollups.getBucket(Granularity.HOURLY, Clock.parse("11/1/21 8:10"));
+		assertThat(bucket.getStart(), equalTo(Clock.parse("11/1/21 8:00")));
+		assertThat(bucket.getTotal(Measure.CREATED), equalTo(0L));
+	}
+	
+	@Test
+	public void testGetBuckets() {
+		rollups.record(Clock.parse("11/1/21 8:10"), Measure.CREATED, null, Priority.HIGH, 1);
+		rollups.record(Clock.parse("11/1/21 11:10"), Measure.CREATED, null, Priority.HIGH, 1);
+		rollups.record(Clock.parse("11/1/21 12:10"), Measure.CREATED, null, Priority.HIGH, 1);
+		
+		List<Long> starts = rollups.getBuckets(Granularity.HOURLY, 
+				Clock.parse("11/1/21 8:30"), Clock.parse("11/1/21 12:00")).stream()
+			.map(Bucket::getStart).toList();
+		assertThat(starts, contains(Clock.parse("11/1/21 8:00"), 
+				Clock.parse("11/1/21 11:00")));
+		assertThat(rollups.getBuckets(Granularity.DAILY, Clock.parse("11/1/21 8:30"), 
+				Clock.parse("11/2/21 0:00")), hasSize(1));
+	}
+}
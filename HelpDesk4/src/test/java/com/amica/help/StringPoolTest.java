@@ -0,0 +1,94 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Ticket.Priority;
+
+/**
+ * Unit test for the {@link StringPool} class.
+ */
+public class StringPoolTest {
+
+	private StringPool pool;
+	
+	@BeforeEach
+	public void setUp() {
+		pool = new StringPool();
+	}
+	
+	@Test
+	public void testCodes() {
+		assertThat(pool.code("A"), equalTo(0));
+		assertThat(pool.code("B"), equalTo(1));
+		assertThat(pool.code(new String("A")), equalTo(0));
+		assertThat(pool.get(1), equalTo("B"));
+		assertThat(pool.codeIfPresent("C"), equalTo(-1));
+		assertThat(pool.size(), equalTo(2));
+	}
+	
+	@Test
+	public void testIntern() {
+		String first = pool.intern(new String("Received approval."));
+		assertThat(pool.intern(new String("Received approval.")), sameInstance(first));
+	}
+	
+	@Test
+	public void testAssignmentNote() {
+		Technician technician = new Technician("ID", "NAME", 12345);
+		String note = pool.getAssignmentNote(technician);
+		assertThat(note, equalTo("Assigned to Technician ID, NAME."));
+		assertThat(pool.getAssignmentNote(technician), sameInstance(note));
+	}
+	
+	@Test
+	public void testSharedAcrossTickets() {
+		HelpDesk helpDesk = new HelpDesk();
+		helpDesk.addTechnician("ID", "NAME", 12345);
+		Ticket ticket1 = helpDesk.getTicketByID
+				(helpDesk.createTicket(new String("A12345"), "D1", Priority.LOW));
+		Ticket ticket2 = helpDesk.getTicketByID
+				(helpDesk.createTicket(new String("A12345"), "D2", Priority.LOW));
+		assertThat(ticket2.getOriginator(), sameInstance(ticket1.getOriginator()));
+		
+		ticket1.resolve(new String("Added permission."));
+		ticket2.resolve(new String("Added permission."));
+		assertThat(ticket2.getHistory().skip(1).findFirst().get().getNote(), 
+				sameInstance(ticket1.getHistory().skip(1).findFirst().get().getNote()));
+	}
+	
+	@Test
+	public void testLookup() {
+		String pooled = pool.intern(new String("Received approval."));
+		assertThat(pool.lookup(new String("Received approval.")), sameInstance(pooled));
+		String other = new String("Fixed it.");
+		assertThat(pool.lookup(other), sameInstance(other));
+		assertThat(pool.size(), equalTo(1));
+	}
+	
+	/**
+	 * Reasons are free text, so the desk's pool shouldn't grow with them,
+	 * but a reason that's already pooled should be shared.
+	 */
+	@Test
+	public void testReasonsNotPooled() {
+		HelpDesk helpDesk = new HelpDesk();
+		helpDesk.addTechnician("ID", "NAME", 12345);
+		String boilerplate = helpDesk.getStrings().intern("Received approval.");
+		Ticket ticket1 = helpDesk.getTicketByID
+				(helpDesk.createTicket("A12345", "D1", Priority.LOW));
+		Ticket ticket2 = helpDesk.getTicketByID
+				(helpDesk.createTicket("A12345", "D2", Priority.LOW));
+		int size = helpDesk.getStrings().size();
+		
+		ticket1.resolve(new String("Added permission."));
+		ticket2.resolve(new String("Received approval."));
+		assertThat(helpDesk.getStrings().size(), equalTo(size));
+		assertThat(helpDesk.getStrings().codeIfPresent("Added permission."), equalTo(-1));
+		assertThat(ticket2.getHistory().skip(2).findFirst().get().getNote(), 
+				sameInstance(boilerplate));
+	}
+}
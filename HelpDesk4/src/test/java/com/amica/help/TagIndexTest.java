@@ -0,0 +1,107 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the {@link TagIndex} class. The tag registry is static,
+ * so we use tag values that no other test will run into.
+ */
+public class TagIndexTest {
+
+	private TagIndex index;
+	private Tag printer;
+	private Tag printQueue;
+	private Tag privacy;
+	
+	@BeforeEach
+	public void setUp() {
+		index = new TagIndex();
+		printer = Tag.getTag("xxPrinter");
+		printQueue = Tag.getTag("xxPrint queue");
+		privacy = Tag.getTag("xxPrivacy");
+	}
+	
+	private List<String> values(List<Tag> tags) {
+		return tags.stream().map(Tag::getValue).toList();
+	}
+	
+	@Test
+	public void testAlphabeticalWithoutUse() {
+		assertThat(values(index.complete("XXPRI", 10)), 
+				contains("xxprint queue", "xxprinter", "xxprivacy"));
+		assertThat(values(index.complete("xxprint", 10)), 
+				contains("xxprint queue", "xxprinter"));
+		assertThat(index.complete("xxz", 10), empty());
+	}
+	
+	@Test
+	public void testRankedByUse() {
+		index.recordUse(privacy);
+		index.recordUse(printer);
+		index.recordUse(printer);
+		assertThat(index.complete("xxpri", 2), contains(printer, privacy));
+		assertThat(index.complete("xxpri", 10), contains(printer, privacy, printQueue));
+		assertThat(index.getUseCount(printer), equalTo(2));
+	}
+	
+	@Test
+	public void testSynonymsAndNewTags() {
+		assertThat(index.complete("xxlaser", 10), empty());
+		Tag.addSynonym("xxLaser printer", "xxPrinter");
+		Tag.addSynonym("xxPrinting", "xxPrinter");
+		assertThat(index.complete("xxlaser", 10), contains(printer));
+		assertThat(index.complete("xxprint", 10), contains(printQueue, printer));
+		
+		Tag plotter = Tag.getTag("xxPlotter");
+		assertThat(index.complete("xxp", 10), hasItem(plotter));
+	}
+	
+	@Test
+	public void testMatchesFullScan() {
+		List<Tag> all = new ArrayList<>();
+		for (int i = 0; i < 200; ++i) {
+			all.add(Tag.getTag(String.format("xxScan%03d", i)));
+		}
+		Tag.addSynonym("xxScanAlias", "xxScan150");
+		
+		Random random = new Random(41);
+		for (int i = 0; i < 1000; ++i) {
+			index.recordUse(all.get(random.nextInt(all.size()) * 
+					random.nextInt(all.size()) / all.size()));
+		}
+		
+		Comparator<Tag> ranking = Comparator.comparingInt(index::getUseCount)
+				.reversed().thenComparing(Comparator.naturalOrder());
+		for (String prefix : List.of("xxscan", "xxscan1", "xxscan15", "xxscana")) {
+			for (int limit : List.of(1, 3, 10, 250)) {
+				List<Tag> expected = all.stream()
+						.filter(tag -> tag.getValue().startsWith(prefix) ||
+							(prefix.equals("xxscana") && tag == all.get(150)))
+						.sorted(ranking).limit(limit).toList();
+				assertThat(prefix + "/" + limit, 
+						index.complete(prefix, limit), equalTo(expected));
+			}
+		}
+		
+		for (int i = 0; i < 1000; ++i) {
+			index.recordUse(all.get(199));
+		}
+		assertThat(index.complete("xxscan", 1), contains(all.get(199)));
+	}
+	
+	@Test
+	public void testBadArguments() {
+		assertThrows(IllegalArgumentException.class, () -> index.complete(null, 5));
+		assertThrows(IllegalArgumentException.class, () -> index.complete("x", -1));
+	}
+}
@@ -0,0 +1,114 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for synonym handling in the {@link Tag} class. The registry
+ * is static, so each test uses its own terms.
+ */
+public class TagTest {
+
+	@Test
+	public void testChainedSynonyms() {
+		Tag.addSynonym("t1wifi", "T1WLAN");
+		Tag.addSynonym("t1wlan", "T1Network");
+		assertThat(Tag.translate("T1WIFI"), equalTo("T1Network"));
+		assertThat(Tag.translate("t1wlan"), equalTo("T1Network"));
+		assertThat(Tag.getTag("t1wifi"), sameInstance(Tag.getTag("T1NETWORK")));
+		assertThat(Tag.getTag("t1wifi").getValue(), equalTo("T1Network"));
+		assertThat(Tag.getCanonicalForms(), hasEntry("t1wifi", "T1Network"));
+		assertThat(Tag.getSynonyms(), hasEntry("t1wifi", "T1WLAN"));
+	}
+	
+	@Test
+	public void testChainedInEitherOrder() {
+		Tag.addSynonym("t2b", "t2c");
+		Tag.addSynonym("t2a", "t2b");
+		assertThat(Tag.translate("t2a"), equalTo("t2c"));
+	}
+	
+	@Test
+	public void testRedefinition() {
+		Tag.addSynonym("t3a", "t3b");
+		Tag.addSynonym("t3x", "t3a");
+		Tag.addSynonym("t3a", "t3c");
+		assertThat(Tag.translate("t3x"), equalTo("t3c"));
+	}
+	
+	@Test
+	public void testCycle() {
+		Tag.addSynonym("t4a", "t4b");
+		Tag.addSynonym("t4b", "t4c");
+		assertThrows(IllegalArgumentException.class, 
+				() -> Tag.addSynonym("t4c", "t4a"));
+		assertThat(Tag.translate("t4c"), equalTo("t4c"));
+		assertThat(Tag.translate("t4a"), equalTo("t4c"));
+	}
+	
+	@Test
+	public void testCaseOnly() {
+		Tag.addSynonym("t5abc", "T5ABC");
+		assertThat(Tag.getSynonyms(), not(hasKey("t5abc")));
+		assertThat(Tag.getTag("t5abc").getValue(), equalTo("T5ABC"));
+	}
+	
+	@Test
+	public void testBulkLoad() {
+		Map<String,String> synonyms = new HashMap<>();
+		for (int i = 0; i < 1000; ++i) {
+			synonyms.put("t6term" + i, "t6term" + (i + 1));
+		}
+		Tag.addSynonyms(synonyms);
+		assertThat(Tag.translate("t6term0"), equalTo("t6term1000"));
+		assertThat(Tag.translate("t6term999"), equalTo("t6term1000"));
+	}
+	
+	@Test
+	public void testBulkLoadWithCycle() {
+		Map<String,String> synonyms = new HashMap<>();
+		synonyms.put("t7a", "t7b");
+		synonyms.put("t7b", "t7c");
+		synonyms.put("t7c", "t7a");
+		assertThrows(IllegalArgumentException.class, () -> Tag.addSynonyms(synonyms));
+		assertThat(Tag.getSynonyms(), not(hasKey("t7a")));
+		assertThat(Tag.translate("t7a"), equalTo("t7a"));
+	}
+	
+	@Test
+	public void testGetTag_SynonymAfterLookup() {
+		TagRegistry registry = new TagRegistry();
+		Tag before = registry.getTag("t8wifi");
+		assertThat(registry.getTag("t8wifi"), sameInstance(before));
+		registry.addSynonym("t8wifi", "t8Network");
+		assertThat(registry.getTag("t8wifi").getValue(), equalTo("t8Network"));
+	}
+	
+	@Test
+	public void testGetTag_ParentSynonymAfterLookup() {
+		TagRegistry parent = new TagRegistry();
+		TagRegistry registry = new TagRegistry(parent);
+		Tag before = registry.getTag("t9wifi");
+		assertThat(registry.getTag("t9wifi"), sameInstance(before));
+		parent.addSynonym("t9wifi", "t9Network");
+		assertThat(registry.getTag("t9wifi").getValue(), equalTo("t9Network"));
+	}
+	
+	@Test
+	public void testGetTag_SpellingsBounded() {
+		TagRegistry registry = new TagRegistry();
+		for (int i = 0; i < TagRegistry.MAX_SPELLINGS * 3; ++i) {
+			registry.getTag("t10tag" + i);
+			assertThat(registry.getSpellingCount(), 
+					lessThanOrEqualTo(TagRegistry.MAX_SPELLINGS));
+		}
+		Tag first = registry.getTag("t10tag0");
+		assertThat(registry.getTag("T10TAG0"), sameInstance(first));
+	}
+}
@@ -0,0 +1,82 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.TagTrends.TagCount;
+
+/**
+ * Unit test for the {@link TagTrends} class.
+ */
+public class TagTrendsTest {
+
+	public static final long HOUR = 60 * 60 * 1000;
+	public static final long START = 1000 * HOUR;
+	
+	public static final Tag VPN = Tag.getTag("trend1");
+	public static final Tag LAPTOP = Tag.getTag("trend2");
+	public static final Tag AUDIO = Tag.getTag("trend3");
+	
+	private TagTrends trends;
+	
+	private void record(Tag tag, int times, long time) {
+		for (int i = 0; i < times; ++i) {
+			trends.record(tag, time);
+		}
+	}
+	
+	private List<Tag> tags(List<TagCount> counts) {
+		return counts.stream().map(TagCount::tag).toList();
+	}
+	
+	@BeforeEach
+	public void setUp() {
+		trends = new TagTrends(2, HOUR, 4);
+	}
+	
+	@Test
+	public void testTopTags() {
+		record(VPN, 5, START);
+		record(LAPTOP, 3, START);
+		assertThat(trends.getTopTags(2), 
+				contains(new TagCount(VPN, 5), new TagCount(LAPTOP, 3)));
+		assertThat(tags(trends.getTopTags(1)), contains(VPN));
+	}
+	
+	@Test
+	public void testBoundedCapacity() {
+		record(VPN, 5, START);
+		record(LAPTOP, 3, START);
+		record(AUDIO, 1, START);
+		List<TagCount> top = trends.getTopTags(3);
+		assertThat(top.size(), equalTo(2));
+		assertThat(top.get(0), equalTo(new TagCount(VPN, 5)));
+		assertThat(top.get(1), equalTo(new TagCount(AUDIO, 4)));
+	}
+	
+	@Test
+	public void testWindows() {
+		record(VPN, 5, START);
+		record(LAPTOP, 3, START + HOUR);
+		assertThat(tags(trends.getTopTags(2, START + HOUR, 1)), contains(LAPTOP));
+		assertThat(tags(trends.getTopTags(2, START + HOUR, 2)), contains(VPN, LAPTOP));
+		assertThat(trends.getTopTags(2, START + 10 * HOUR, 4), empty());
+	}
+	
+	@Test
+	public void testTrending() {
+		for (int hour = 0; hour < 3; ++hour) {
+			record(VPN, 4, START + hour * HOUR);
+			record(LAPTOP, 1, START + hour * HOUR);
+		}
+		record(VPN, 4, START + 3 * HOUR);
+		record(LAPTOP, 6, START + 3 * HOUR);
+		assertThat(tags(trends.getTrendingTags(5, START + 3 * HOUR, 2.0)), 
+				contains(LAPTOP));
+	}
+}
@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.List;
@@ -103,6 +104,31 @@ public class TechnicianTest {
 		assertThat(activeTickets(), contains(2));
 	}
 	
+	@Test
+	public void testNextTicket() {
+		assertThat(technician.getNextTicket(), nullValue());
+		ticket1.assign(technician);
+		ticket2.assign(technician);
+		ticket3.assign(technician);
+		assertThat(technician.getNextTicket(), equalTo(ticket3));
+		
+		ticket3.wait("");
+		assertThat(technician.getNextTicket(), equalTo(ticket2));
+		ticket2.resolve("");
+		assertThat(technician.getNextTicket(), equalTo(ticket1));
+		ticket3.resume("");
+		assertThat(technician.getNextTicket(), equalTo(ticket3));
+	}
+	
+	@Test
+	public void testNextTicket_Aging() {
+		ticket3.assign(technician);
+		Clock.setTime("1/2/22 8:00");
+		Ticket oldTicket = new Ticket(4, ORIGINATOR, DESCRIPTION, Priority.LOW);
+		oldTicket.assign(technician);
+		assertThat(technician.getNextTicket(), equalTo(oldTicket));
+	}
+	
 	@Test
 	public void testRemoveActiveTicket_Unresolved() {
 		ticket1.assign(technician);
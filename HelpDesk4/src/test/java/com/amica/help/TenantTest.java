@@ -0,0 +1,109 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amica.help.Ticket.Priority;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Tests that help desks with their own {@link Tenant tenants} keep their
+ * time, tags, and strings apart, while sharing a common vocabulary.
+ */
+public class TenantTest {
+
+	public static final String APPROVAL = "Requested approval from manager.";
+	public static final int DESKS = 100;
+	public static final long EMPTY_DESK_BUDGET = 6 * 1024;
+	
+	private Tenant common;
+	private SimulatedTimeSource clockA = new SimulatedTimeSource(Clock.parse("1/3/22 9:00"));
+	private SimulatedTimeSource clockB = new SimulatedTimeSource(Clock.parse("2/7/22 14:30"));
+	private HelpDesk deskA;
+	private HelpDesk deskB;
+	
+	@BeforeEach
+	public void setUp() {
+		common = new Tenant("common", Clock.SYSTEM, new TagRegistry(), new StringPool());
+		common.getTags().addSynonym("tnWifi", "tnNetwork");
+		common.getTags().getTag("tnNetwork");
+		common.getStrings().intern(APPROVAL);
+		
+		deskA = new HelpDesk(Tenant.over(common, "A", clockA));
+		deskA.addTechnician("A1", "Technician A1", 1);
+		deskB = new HelpDesk(Tenant.over(common, "B", clockB));
+		deskB.addTechnician("B1", "Technician B1", 1);
+	}
+	
+	@Test
+	public void testSeparateClocks() {
+		int IDA = deskA.createTicket("X", "Problem", Priority.LOW);
+		int IDB = deskB.createTicket("Y", "Problem", Priority.LOW);
+		assertThat(deskA.getTicketByID(IDA).getCreatedTime(), equalTo(clockA.getTime()));
+		assertThat(deskB.getTicketByID(IDB).getCreatedTime(), equalTo(clockB.getTime()));
+	}
+	
+	@Test
+	public void testSharedTags() {
+		int IDA = deskA.createTicket("X", "Problem", Priority.LOW, "TNWIFI");
+		int IDB = deskB.createTicket("Y", "Problem", Priority.LOW, "tnnetwork");
+		Tag tagA = deskA.getTicketByID(IDA).getTags().findFirst().get();
+		Tag tagB = deskB.getTicketByID(IDB).getTags().findFirst().get();
+		assertThat(tagA.getValue(), equalTo("tnNetwork"));
+		assertThat(tagA, sameInstance(tagB));
+	}
+	
+	@Test
+	public void testSeparateTags() {
+		deskA.getTenant().getTags().addSynonym("tnNet", "tnWifi");
+		deskA.getTenant().getTags().addCapitalization("tnCRM");
+		
+		assertThat(deskA.getTenant().getTags().getTag("TNNET").getValue(), equalTo("tnNetwork"));
+		assertThat(deskB.getTenant().getTags().getTag("TNNET").getValue(), equalTo("tnnet"));
+		assertThat(deskA.getTenant().getTags().getTag("tncrm").getValue(), equalTo("tnCRM"));
+		assertThat(deskB.getTenant().getTags().getTag("tncrm").getValue(), equalTo("tncrm"));
+		
+		assertThat(common.getTags().getTags(), not(hasItem(hasProperty("value", equalTo("tncrm")))));
+		assertThat(Tag.getTags(), not(hasItem(hasProperty("value", equalTo("tnCRM")))));
+		Tag network = common.getTags().getTag("tnNetwork");
+		assertThat(deskA.completeTag("tnn", 5), contains(network));
+	}
+	
+	@Test
+	public void testSharedStrings() {
+		int ID = deskA.createTicket("X", "Problem", Priority.LOW);
+		Ticket ticket = deskA.getTicketByID(ID);
+		ticket.wait(new String(APPROVAL));
+		
+		String note = ticket.getHistory().reduce((a, b) -> b).get().getNote();
+		assertThat(note, sameInstance(common.getStrings().intern(APPROVAL)));
+		assertThat(deskA.getStrings().codeIfPresent(APPROVAL), equalTo(-1));
+	}
+	
+	/**
+	 * A tenant that hasn't done anything yet should cost little, so we 
+	 * measure the bytes allocated to build empty desks over the common
+	 * vocabulary, after one warm-up desk to load the classes.
+	 */
+	@Test
+	public void testEmptyDeskCost() {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		HelpDesk[] desks = new HelpDesk[DESKS];
+		desks[0] = new HelpDesk(Tenant.over(common, "warm-up", clockA));
+		
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < DESKS; ++i) {
+			desks[i] = new HelpDesk(Tenant.over(common, "T" + i, clockA));
+		}
+		long perDesk = (threads.getCurrentThreadAllocatedBytes() - before) / DESKS;
+		assertThat("Bytes per empty desk", perDesk, lessThan(EMPTY_DESK_BUDGET));
+	}
+}
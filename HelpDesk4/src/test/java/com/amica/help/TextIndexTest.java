@@ -0,0 +1,110 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the {@link TextIndex} class.
+ */
+public class TextIndexTest {
+
+	private TextIndex index;
+	
+	private List<Integer> IDs(List<TextIndex.Hit> hits) {
+		return hits.stream().map(TextIndex.Hit::ID).toList();
+	}
+	
+	@BeforeEach
+	public void setUp() {
+		index = new TextIndex();
+		index.add(1, "Printer is jammed.");
+		index.add(2, "Printer, printer, printer: out of toner on the printer.");
+		index.add(3, "Can't log in to the VPN.");
+		index.add(4, "Need a new monitor.");
+	}
+	
+	@Test
+	public void testTokenize() {
+		assertThat(TextIndex.tokenize("Can't log-in, VPN2!"), 
+				contains("can", "t", "log", "in", "vpn2"));
+	}
+	
+	@Test
+	public void testTermFrequency() {
+		assertThat(IDs(index.search("printer", 10)), contains(2, 1));
+		assertThat(index.getDocumentFrequency("PRINTER"), equalTo(2));
+	}
+	
+	@Test
+	public void testRareTermsCountMore() {
+		index.add(5, "The monitor and the printer.");
+		index.add(6, "Another printer.");
+		List<TextIndex.Hit> hits = index.search("monitor printer", 10);
+		assertThat(hits.get(0).ID(), equalTo(5));
+		assertThat(hits.get(1).ID(), equalTo(4));
+	}
+	
+	@Test
+	public void testTopK() {
+		for (int ID = 10; ID < 1000; ++ID) {
+			index.add(ID, "Another printer problem.");
+		}
+		List<TextIndex.Hit> hits = index.search("printer", 3);
+		assertThat(IDs(hits), contains(2, 1, 10));
+		assertThat(hits.get(0).score(), greaterThan(hits.get(1).score()));
+	}
+	
+	@Test
+	public void testBoost() {
+		assertThat(IDs(index.search("printer", 10, ID -> ID == 1 ? 10 : 1, 10)), 
+				contains(1, 2));
+	}
+	
+	@Test
+	public void testNotesAddedLater() {
+		index.add(4, "Turns out the monitor was fine; replaced the VPN token.");
+		index.add(1, "Moved on to a different printer.");
+		assertThat(IDs(index.search("vpn", 10)), containsInAnyOrder(3, 4));
+		assertThat(IDs(index.search("printer", 10)), contains(2, 1));
+		assertThat(index.search("scanner", 10), empty());
+	}
+	
+	/**
+	 * With k at least the number of matching tickets, the heap never fills
+	 * and nothing is pruned, so the top k of that is what a full scan gives.
+	 */
+	@Test
+	public void testMatchesFullScan() {
+		String[] words = { "printer", "vpn", "monitor", "toner", "jammed", 
+				"password", "reset", "slow", "network", "the" };
+		Random random = new Random(44);
+		for (int ID = 10; ID < 2000; ++ID) {
+			StringBuilder text = new StringBuilder();
+			int length = 1 + random.nextInt(12);
+			for (int i = 0; i < length; ++i) {
+				int word = random.nextInt(words.length) * random.nextInt(words.length) / words.length;
+				text.append(words[word]).append(' ');
+			}
+			index.add(ID, text.toString());
+		}
+		
+		for (String query : List.of("printer", "printer toner jammed", 
+				"the network is slow", "reset password vpn monitor the")) {
+			for (double maxBoost : List.of(1.0, 3.0)) {
+				IntToDoubleFunction boost = ID -> maxBoost == 1.0 ? 1.0 : 1 + ID % 3;
+				List<TextIndex.Hit> all = index.search(query, 10_000, boost, maxBoost);
+				for (int k : List.of(1, 5, 50)) {
+					assertThat(query + "/" + k, index.search(query, k, boost, maxBoost),
+							equalTo(all.subList(0, k)));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.amica.help;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.amica.help.Ticket.Priority;
+
+/**
+ * Unit test for the {@link TicketExporter} class. We use a small buffer
+ * to be sure that output is flushed correctly as the buffer fills.
+ */
+public class TicketExporterTest {
+
+	public static final String START_TIME = "1/6/22 8:00";
+	
+	@TempDir
+	public Path directory;
+	
+	private HelpDesk helpDesk;
+	private TicketExporter exporter;
+	
+	@BeforeEach
+	public void setUp() {
+		Clock.setTime(START_TIME);
+		helpDesk = new HelpDesk();
+		helpDesk.addTechnician("T1", "Tech1", 1);
+		helpDesk.createTicket("A1", "Printer says \"PC LOAD LETTER\".", Priority.LOW);
+		helpDesk.getTicketByID(1).addTags("printer");
+		helpDesk.getTicketByID(1).resolve("Loaded letter paper, caf\u00e9-style.");
+		helpDesk.reopenTicket(1, "Jammed again.", Priority.MEDIUM);
+		exporter = new TicketExporter(64);
+	}
+	
+	@Test
+	public void testCSV() throws IOException {
+		Path tickets = directory.resolve("tickets.csv");
+		Path events = directory.resolve("events.csv");
+		Path tags = directory.resolve("tags.csv");
+		int count = exporter.exportCSV(helpDesk.getTickets().iterator(), 
+				tickets, events, tags);
+		assertThat(count, equalTo(2));
+		
+		assertThat(Files.readAllLines(tickets), contains(
+				"2,1,\"A1\",\"Jammed again.\",MEDIUM,ASSIGNED,\"T1\"",
+				"1,0,\"A1\",\"Printer says \"\"PC LOAD LETTER\"\".\",LOW,RESOLVED,\"T1\""));
+		
+		long time = Clock.parse(START_TIME);
+		List<String> eventLines = Files.readAllLines(events);
+		assertThat(eventLines.size(), equalTo(5));
+		assertThat(eventLines.get(0), 
+				equalTo("2," + time + ",CREATED,\"Created ticket.\""));
+		assertThat(eventLines.get(4), 
+				equalTo("1," + time + ",RESOLVED,\"Loaded letter paper, caf\u00e9-style.\""));
+		
+		assertThat(Files.readAllLines(tags), contains("1,\"printer\""));
+	}
+	
+	@Test
+	public void testBinary() throws IOException {
+		Path file = directory.resolve("desk.bin");
+		assertThat(exporter.exportBinary(helpDesk.getTickets().iterator(), file),
+				equalTo(2));
+		
+		int tickets = 0;
+		int events = 0;
+		int tags = 0;
+		try ( DataInputStream in = new DataInputStream(Files.newInputStream(file)); ) {
+			assertThat(in.readInt(), equalTo(TicketExporter.MAGIC));
+			int type;
+			while ((type = in.read()) != -1) {
+				if (type == TicketExporter.TICKET_RECORD) {
+					++tickets;
+					in.readInt();
+					in.readInt();
+					readString(in);
+					readString(in);
+					in.readByte();
+					in.readByte();
+					readString(in);
+				} else if (type == TicketExporter.EVENT_RECORD) {
+					++events;
+					in.readInt();
+					in.readLong();
+					in.readByte();
+					String note = readString(in);
+					if (events == 5) {
+						assertThat(note, equalTo("Loaded letter paper, caf\u00e9-style."));
+					}
+				} else {
+					assertThat(type, equalTo((int) TicketExporter.TAG_RECORD));
+					++tags;
+					in.readInt();
+					assertThat(readString(in), equalTo("printer"));
+				}
+			}
+		}
+		assertThat(tickets, equalTo(2));
+		assertThat(events, equalTo(5));
+		assertThat(tags, equalTo(1));
+	}
+	
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
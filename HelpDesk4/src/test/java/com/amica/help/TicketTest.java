@@ -3,6 +3,7 @@ package com.amica.help;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,6 +12,7 @@ import org.hamcrest.Matcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.mockito.InOrder;
 
 import com.amica.help.Ticket.Priority;
 import com.amica.help.Ticket.Status;
@@ -211,6 +213,41 @@ public class TicketTest {
     
     assertHasEvent(2, null, NOTE);
   }
+  
+  @Test
+  public void testReassign() {
+    assign();
+    wait_();
+    Technician previous = technician;
+    Technician other = mock(Technician.class);
+    when(other.toString()).thenReturn("Technician OTHER, OTHER_NAME");
+    passOneMinute();
+    ticket.reassign(other);
+    
+    assertThat(ticket.getStatus(), equalTo(Status.WAITING));
+    assertThat(ticket.getTechnician(), equalTo(other));
+    
+    assertHasEvent(3, null, "Assigned to Technician OTHER, OTHER_NAME.");
+    verify(previous).releaseTicket(ticket);
+    verify(other).addActiveTicket(ticket);
+  }
+
+  @Test
+  public void testReassign_ListenerNotifiedLast() {
+    TicketListener listener = mock(TicketListener.class);
+    ticket = new Ticket(ID, ORIGINATOR, DESCRIPTION, PRIORITY, 
+        Tenant.getShared(), listener);
+    assign();
+    Technician previous = technician;
+    Technician other = mock(Technician.class);
+    passOneMinute();
+    ticket.reassign(other);
+    
+    InOrder order = inOrder(previous, other, listener);
+    order.verify(previous).releaseTicket(ticket);
+    order.verify(other).addActiveTicket(ticket);
+    order.verify(listener).ticketChanged(ticket, previous, Status.ASSIGNED, PRIORITY);
+  }
 
   ///////////////////////////////////////////////////////////////////
   // Illegal arguments
@@ -234,6 +271,43 @@ public class TicketTest {
         new Ticket(ID, ORIGINATOR, DESCRIPTION, null));
   }
 
+  @Test
+  public void testEscalate() {
+    assign();
+    when(technician.detach(ticket)).thenReturn(true);
+    passOneMinute();
+    ticket.escalate("Customer is a VP.");
+    
+    assertThat(ticket.getPriority(), equalTo(Priority.URGENT));
+    assertHasEvent(2, null, "Changed priority from HIGH to URGENT: Customer is a VP.");
+    verify(technician).detach(ticket);
+    verify(technician).attach(ticket);
+    
+    assertThrows(IllegalStateException.class, () -> ticket.escalate("Again."));
+  }
+  
+  @Test
+  public void testDeEscalate() {
+    ticket.deEscalate("Not so bad.");
+    ticket.deEscalate("Not bad at all.");
+    assertThat(ticket.getPriority(), equalTo(Priority.LOW));
+    assertThrows(IllegalStateException.class, () -> ticket.deEscalate("Lower?"));
+  }
+  
+  @Test
+  public void testSetPriority_Resolved() {
+    assign();
+    resolve();
+    assertThrows(IllegalStateException.class, 
+        () -> ticket.setPriority(Priority.LOW, "Too late."));
+  }
+  
+  @Test
+  public void testReassign_Created() {
+    assertThrows(IllegalStateException.class, 
+        () -> ticket.reassign(mock(Technician.class)));
+  }
+  
   @Test
   public void testAssign_NullTechnician() {
     assertThrows(IllegalArgumentException.class, 
@@ -388,6 +462,16 @@ public class TicketTest {
     assertThat(ticket.getMinutesToResolve(), equalTo(2));
   }
   
+  @Test
+  public void testGetEffectivePriority() {
+    long created = Clock.getTime();
+    assertThat(ticket.getEffectivePriority(created), equalTo(PRIORITY));
+    assertThat(ticket.getEffectivePriority(created + Ticket.AGING_INTERVAL), 
+        equalTo(Priority.URGENT));
+    assertThat(ticket.getEffectivePriority(created + 5 * Ticket.AGING_INTERVAL), 
+        equalTo(Priority.URGENT));
+  }
+  
   @Test
   public void testGetMinutesToResolve_Unresolved() {
     assertThrows(IllegalStateException.class, ticket::getMinutesToResolve);